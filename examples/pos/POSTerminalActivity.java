@@ -15,12 +15,15 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.asiancryptopay.sdk.AsianCryptoPayment;
+import com.asiancryptopay.sdk.PaymentStatusListener;
+import com.asiancryptopay.sdk.PaymentStatusStream;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.text.DecimalFormat;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +34,7 @@ import java.util.Map;
 public class POSTerminalActivity extends AppCompatActivity {
 
     private AsianCryptoPayment paymentSDK;
+    private PaymentStatusStream statusStream;
     private String selectedCountry = "MY";
     private String selectedCurrency = "MYR";
     private String selectedCryptoCurrency = "BTC";
@@ -224,82 +228,113 @@ public class POSTerminalActivity extends AppCompatActivity {
                 metadata,
                 new AsianCryptoPayment.PaymentCallback() {
                     @Override
-                    public void onSuccess(final JSONObject payment) {
-                        runOnUiThread(new Runnable() {
-                            @Override
-                            public void run() {
-                                try {
-                                    // Display payment details
-                                    String paymentAddress = payment.getString("payment_address");
-                                    String transactionId = payment.getString("transaction_id");
-                                    double cryptoAmount = payment.getDouble("crypto_amount");
-                                    String cryptoCurrency = payment.getString("crypto_currency");
-                                    String expiresAt = payment.getString("expires_at");
-                                    
-                                    // Update UI
-                                    TextView addressTextView = findViewById(R.id.payment_address);
-                                    TextView amountTextView = findViewById(R.id.crypto_amount);
-                                    TextView expiryTextView = findViewById(R.id.payment_expiry);
-                                    
-                                    addressTextView.setText("Address: " + paymentAddress);
-                                    amountTextView.setText("Amount: " + new DecimalFormat("#.########").format(cryptoAmount) + " " + cryptoCurrency);
-                                    expiryTextView.setText("Expires: " + expiresAt);
-                                    statusTextView.setText("Waiting for payment...");
-                                    
-                                    // In a real implementation, we would display a QR code
-                                    // For this example, we'll just show a message
-                                    TextView qrTextView = findViewById(R.id.qr_placeholder);
-                                    qrTextView.setText("QR Code for: " + paymentAddress);
-                                    
-                                    // Start checking payment status
-                                    startCheckingPaymentStatus(transactionId);
-                                    
-                                } catch (JSONException e) {
-                                    showError("Error parsing payment response: " + e.getMessage());
-                                }
-                            }
-                        });
+                    public void onSuccess(JSONObject payment) {
+                        // Delivered on the main thread by the SDK's default callback executor
+                        try {
+                            // Display payment details
+                            String paymentAddress = payment.getString("payment_address");
+                            String transactionId = payment.getString("transaction_id");
+                            double cryptoAmount = payment.getDouble("crypto_amount");
+                            String cryptoCurrency = payment.getString("crypto_currency");
+                            String expiresAt = payment.getString("expires_at");
+                            
+                            // Update UI
+                            TextView addressTextView = findViewById(R.id.payment_address);
+                            TextView amountTextView = findViewById(R.id.crypto_amount);
+                            TextView expiryTextView = findViewById(R.id.payment_expiry);
+                            
+                            addressTextView.setText("Address: " + paymentAddress);
+                            amountTextView.setText("Amount: " + new DecimalFormat("#.########").format(cryptoAmount) + " " + cryptoCurrency);
+                            expiryTextView.setText("Expires: " + expiresAt);
+                            statusTextView.setText("Waiting for payment...");
+                            
+                            // In a real implementation, we would display a QR code
+                            // For this example, we'll just show a message
+                            TextView qrTextView = findViewById(R.id.qr_placeholder);
+                            qrTextView.setText("QR Code for: " + paymentAddress);
+                            
+                            // Start checking payment status
+                            startCheckingPaymentStatus(transactionId);
+                            
+                        } catch (JSONException e) {
+                            showError("Error parsing payment response: " + e.getMessage());
+                        }
                     }
                     
                     @Override
-                    public void onError(final Exception e) {
-                        runOnUiThread(new Runnable() {
-                            @Override
-                            public void run() {
-                                showError("Payment creation failed: " + e.getMessage());
-                            }
-                        });
+                    public void onError(Exception e) {
+                        showError("Payment creation failed: " + e.getMessage());
                     }
                 }
         );
     }
     
     /**
-     * Start checking payment status periodically
+     * Watch the payment's status over the SDK's status stream
      */
     private void startCheckingPaymentStatus(final String transactionId) {
-        // In a real implementation, we would check the status periodically
-        // For this example, we'll simulate a successful payment after 5 seconds
+        stopCheckingPaymentStatus();
         
-        new android.os.Handler().postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                runOnUiThread(new Runnable() {
+        // Updates are pushed as soon as the payment changes; callbacks arrive on the main thread
+        statusStream = paymentSDK.openPaymentStatusStream(
+                Collections.singletonList(transactionId),
+                new PaymentStatusListener() {
+                    @Override
+                    public void onStatusUpdate(String id, String status, AsianCryptoPayment.Payment payment) {
+                        switch (status) {
+                            case "pending":
+                                statusTextView.setText("Payment detected, waiting for confirmation...");
+                                break;
+                            case "completed":
+                                statusTextView.setText("Payment completed successfully!");
+                                
+                                // Show success message
+                                Toast.makeText(POSTerminalActivity.this, 
+                                        "Payment received! Transaction ID: " + id, 
+                                        Toast.LENGTH_LONG).show();
+                                
+                                // In a real implementation, we would update the order status
+                                // and proceed with order fulfillment
+                                stopCheckingPaymentStatus();
+                                break;
+                            case "failed":
+                            case "expired":
+                            case "cancelled":
+                                showError("Payment " + status);
+                                stopCheckingPaymentStatus();
+                                break;
+                            default:
+                                break;
+                        }
+                    }
+                    
                     @Override
-                    public void run() {
-                        statusTextView.setText("Payment completed successfully!");
-                        
-                        // Show success message
-                        Toast.makeText(POSTerminalActivity.this, 
-                                "Payment received! Transaction ID: " + transactionId, 
-                                Toast.LENGTH_LONG).show();
-                        
-                        // In a real implementation, we would update the order status
-                        // and proceed with order fulfillment
+                    public void onTrackingStopped(String id, Exception reason) {
+                        showError("Payment status unknown: " + reason.getMessage());
+                        stopCheckingPaymentStatus();
+                    }
+                    
+                    @Override
+                    public void onError(Exception e) {
+                        showError("Payment status updates stopped: " + e.getMessage());
                     }
                 });
-            }
-        }, 5000);
+    }
+    
+    /**
+     * Stop watching the current payment, if any
+     */
+    private void stopCheckingPaymentStatus() {
+        if (statusStream != null) {
+            statusStream.close();
+            statusStream = null;
+        }
+    }
+    
+    @Override
+    protected void onDestroy() {
+        stopCheckingPaymentStatus();
+        super.onDestroy();
     }
     
     /**
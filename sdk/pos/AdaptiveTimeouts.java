@@ -0,0 +1,92 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Sets connect, read and write timeouts per call from the endpoint's recent
+ * latency: the 99th percentile times 1.5 plus a one-second margin, clamped to
+ * [minTimeout, maxTimeout]. Until an endpoint has enough samples, or when
+ * adaptation is disabled, calls use maxTimeout. A fixed per-endpoint timeout
+ * overrides the adaptive value. The payment status stream keeps a fixed idle
+ * read timeout.
+ */
+final class AdaptiveTimeouts implements Interceptor {
+    private static final double PERCENTILE = 0.99;
+    private static final double MULTIPLIER = 1.5;
+    private static final long MARGIN_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int MIN_SAMPLES = 20;
+
+    private final String basePath;
+    private final LatencyTracker latencyTracker;
+    private final boolean adaptive;
+    private final long minTimeoutMillis;
+    private final long maxTimeoutMillis;
+    private final Map<ApiEndpoint, Long> fixedTimeoutsMillis;
+
+    /**
+     * @param apiRoot API base URL
+     * @param latencyTracker Source of per-endpoint latency
+     * @param adaptive Whether to derive timeouts from latency
+     * @param minTimeoutMillis Lower bound for adaptive timeouts
+     * @param maxTimeoutMillis Upper bound for adaptive timeouts, and the timeout before enough samples exist
+     * @param fixedTimeoutsMillis Per-endpoint timeouts that replace the adaptive value
+     */
+    AdaptiveTimeouts(@NonNull HttpUrl apiRoot, @NonNull LatencyTracker latencyTracker, boolean adaptive,
+                     long minTimeoutMillis, long maxTimeoutMillis, @NonNull Map<ApiEndpoint, Long> fixedTimeoutsMillis) {
+        this.basePath = ApiEndpoint.basePath(apiRoot);
+        this.latencyTracker = latencyTracker;
+        this.adaptive = adaptive;
+        this.minTimeoutMillis = minTimeoutMillis;
+        this.maxTimeoutMillis = maxTimeoutMillis;
+        this.fixedTimeoutsMillis = fixedTimeoutsMillis.isEmpty()
+                ? new EnumMap<ApiEndpoint, Long>(ApiEndpoint.class)
+                : new EnumMap<>(fixedTimeoutsMillis);
+    }
+
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        ApiEndpoint endpoint = ApiEndpoint.classify(chain.request(), basePath);
+        int timeout = (int) timeoutMillis(endpoint);
+        // An event stream is idle between events; its read timeout only detects a dead connection
+        int readTimeout = endpoint == ApiEndpoint.PAYMENT_STREAM ? (int) PaymentStatusStream.IDLE_TIMEOUT_MILLIS : timeout;
+        return chain
+                .withConnectTimeout(timeout, TimeUnit.MILLISECONDS)
+                .withReadTimeout(readTimeout, TimeUnit.MILLISECONDS)
+                .withWriteTimeout(timeout, TimeUnit.MILLISECONDS)
+                .proceed(chain.request());
+    }
+
+    /**
+     * @param endpoint API operation
+     * @return Timeout in milliseconds for the next call to the operation
+     */
+    long timeoutMillis(@NonNull ApiEndpoint endpoint) {
+        Long fixed = fixedTimeoutsMillis.get(endpoint);
+        if (fixed != null) {
+            return fixed;
+        }
+        if (!adaptive) {
+            return maxTimeoutMillis;
+        }
+        long latency = latencyTracker.histogram(endpoint).percentile(PERCENTILE, MIN_SAMPLES);
+        if (latency < 0) {
+            return maxTimeoutMillis;
+        }
+        long timeout = TimeUnit.NANOSECONDS.toMillis((long) (latency * MULTIPLIER) + MARGIN_NANOS);
+        return Math.max(minTimeoutMillis, Math.min(timeout, maxTimeoutMillis));
+    }
+}
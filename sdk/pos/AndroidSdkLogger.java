@@ -0,0 +1,50 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Android adapter: SdkLogger backed by logcat
+ */
+final class AndroidSdkLogger implements SdkLogger {
+    private final String tag;
+
+    AndroidSdkLogger(@NonNull String tag) {
+        this.tag = tag;
+    }
+
+    @Override
+    public void debug(@NonNull String message) {
+        Log.d(tag, message);
+    }
+
+    @Override
+    public void info(@NonNull String message) {
+        Log.i(tag, message);
+    }
+
+    @Override
+    public void warn(@NonNull String message, @Nullable Throwable error) {
+        if (error != null) {
+            Log.w(tag, message, error);
+        } else {
+            Log.w(tag, message);
+        }
+    }
+
+    @Override
+    public void error(@NonNull String message, @Nullable Throwable error) {
+        if (error != null) {
+            Log.e(tag, message, error);
+        } else {
+            Log.e(tag, message);
+        }
+    }
+}
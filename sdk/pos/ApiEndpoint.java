@@ -0,0 +1,118 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+
+/**
+ * API operations, as seen by the per-endpoint policies of the transport.
+ *
+ * Each operation carries the rate-limit group and documented per-minute limit
+ * from the API reference. Reading a single payment and listing payments are
+ * both GET /payments and share that group's budget.
+ */
+enum ApiEndpoint {
+    PAYMENT_CREATE("POST /payments", "POST /payments", 60),
+    PAYMENT_LIST("GET /payments", "GET /payments", 120),
+    PAYMENT_GET("GET /payments/{id}", "GET /payments", 120),
+    PAYMENT_CANCEL("POST /payments/{id}/cancel", "other", 60),
+    PAYMENT_STREAM("GET /payments/stream", "GET /payments", 120),
+    EXCHANGE_RATES("/exchange-rates", "/exchange-rates", 300),
+    OTHER("other", "other", 60);
+
+    /** Name reported to applications, e.g. in circuit breaker events */
+    final String label;
+    /** Requests in the same group draw on one server-side budget */
+    final String rateLimitGroup;
+    /** Documented requests per minute for the group */
+    final int documentedLimitPerMinute;
+
+    ApiEndpoint(String label, String rateLimitGroup, int documentedLimitPerMinute) {
+        this.label = label;
+        this.rateLimitGroup = rateLimitGroup;
+        this.documentedLimitPerMinute = documentedLimitPerMinute;
+    }
+
+    /**
+     * @param label Endpoint label, e.g. "GET /payments/{id}"
+     * @return Operation with that label
+     * @throws IllegalArgumentException If no operation has the label
+     */
+    @NonNull
+    static ApiEndpoint forLabel(@NonNull String label) {
+        for (ApiEndpoint endpoint : values()) {
+            if (endpoint.label.equals(label)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint: " + label);
+    }
+
+    /**
+     * Classify a request
+     *
+     * @param request Request to an API URL
+     * @param basePath Encoded path of the API root without a trailing slash, e.g. "" or "/v1"
+     * @return Operation the request performs
+     */
+    @NonNull
+    static ApiEndpoint classify(@NonNull Request request, @NonNull String basePath) {
+        return classify(request.method(), relativePath(request.url(), basePath));
+    }
+
+    /**
+     * Classify a method and a path relative to the API root
+     *
+     * @param method HTTP method
+     * @param path Relative path, e.g. /payments/TRX-1/cancel
+     * @return Operation the request performs
+     */
+    @NonNull
+    static ApiEndpoint classify(@NonNull String method, @NonNull String path) {
+        String[] segments = path.startsWith("/") ? path.substring(1).split("/") : path.split("/");
+        String root = segments[0];
+
+        if ("payments".equals(root)) {
+            if (segments.length == 1) {
+                return "POST".equals(method) ? PAYMENT_CREATE : PAYMENT_LIST;
+            } else if (segments.length == 2 && "GET".equals(method)) {
+                return "stream".equals(segments[1]) ? PAYMENT_STREAM : PAYMENT_GET;
+            } else if (segments.length == 3 && "cancel".equals(segments[2])) {
+                return PAYMENT_CANCEL;
+            }
+        } else if ("exchange-rates".equals(root)) {
+            return EXCHANGE_RATES;
+        }
+        return OTHER;
+    }
+
+    /**
+     * @param url API URL
+     * @param basePath Encoded path of the API root without a trailing slash
+     * @return Encoded path of the URL relative to the API root, starting with '/'
+     */
+    @NonNull
+    static String relativePath(@NonNull HttpUrl url, @NonNull String basePath) {
+        String path = url.encodedPath();
+        if (!basePath.isEmpty() && path.startsWith(basePath)) {
+            path = path.substring(basePath.length());
+        }
+        return path;
+    }
+
+    /**
+     * @param apiRoot API base URL
+     * @return Encoded path of the API root without a trailing slash
+     */
+    @NonNull
+    static String basePath(@NonNull HttpUrl apiRoot) {
+        String path = apiRoot.encodedPath();
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+}
@@ -0,0 +1,493 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.ByteString;
+
+/**
+ * Builds, signs and executes API calls and decodes their responses.
+ *
+ * This is the request path behind the future-based and blocking surfaces.
+ * It exposes the underlying OkHttp Call so that callers can cancel it.
+ */
+final class ApiTransport {
+    static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    /**
+     * Decodes a successful response body
+     */
+    interface ResponseParser<T> {
+        T parse(@NonNull ResponseBody body) throws IOException, JSONException;
+    }
+
+    private final OkHttpClient client;
+    private final String baseUrl;
+    private final String apiKey;
+    private final String merchantId;
+    private final boolean testMode;
+    private final RateLimitGovernor rateLimitGovernor;
+
+    /**
+     * @param httpClient Client to derive from
+     * @param apiEndpoint API base URL
+     * @param apiKey API key
+     * @param merchantId Merchant ID
+     * @param testMode Whether test mode is enabled
+     * @param policies Interceptors applied in order before signing, outermost first
+     * @param rateLimitGovernor Rate limiting policy among the policies, admitting enqueued calls, or null
+     */
+    ApiTransport(@NonNull OkHttpClient httpClient, @NonNull String apiEndpoint, @NonNull String apiKey,
+                 @NonNull String merchantId, boolean testMode, @NonNull List<Interceptor> policies,
+                 @Nullable RateLimitGovernor rateLimitGovernor) {
+        HttpUrl url = HttpUrl.parse(apiEndpoint);
+        if (url == null) {
+            throw new IllegalArgumentException("Invalid API endpoint: " + apiEndpoint);
+        }
+        this.baseUrl = apiEndpoint.endsWith("/") ? apiEndpoint.substring(0, apiEndpoint.length() - 1) : apiEndpoint;
+        this.apiKey = apiKey;
+        this.merchantId = merchantId;
+        this.testMode = testMode;
+        this.rateLimitGovernor = rateLimitGovernor;
+        OkHttpClient.Builder builder = httpClient.newBuilder();
+        for (Interceptor policy : policies) {
+            builder.addInterceptor(policy);
+        }
+        // Signing stays innermost so every attempt carries a fresh timestamp and nonce
+        this.client = builder
+                .addInterceptor(new RequestSigningInterceptor(new RequestSigner(apiKey), url))
+                .build();
+    }
+
+    /**
+     * Create a call for an API endpoint
+     *
+     * @param endpoint Endpoint relative to the API root, e.g. payments/TRX-1
+     * @param method HTTP method
+     * @param body Request body, or null
+     * @return Unstarted call
+     */
+    @NonNull
+    Call newCall(@NonNull String endpoint, @NonNull String method, @Nullable RequestBody body) {
+        return newCall(endpoint, method, body, null);
+    }
+
+    /**
+     * Create a call that the API deduplicates by idempotency key, so that it can be
+     * retried without repeating its effect
+     *
+     * @param endpoint Endpoint relative to the API root
+     * @param method HTTP method
+     * @param body Request body, or null
+     * @param idempotencyKey Idempotency key, or null
+     * @return Unstarted call
+     */
+    @NonNull
+    Call newCall(@NonNull String endpoint, @NonNull String method, @Nullable RequestBody body,
+                 @Nullable String idempotencyKey) {
+        if (body == null && ("POST".equals(method) || "PUT".equals(method))) {
+            body = RequestBody.create(JSON, EMPTY_BODY);
+        }
+
+        Request.Builder request = newRequest(endpoint, method, body);
+        if (idempotencyKey != null) {
+            request.header(RetryInterceptor.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        }
+        return client.newCall(request.build());
+    }
+
+    /**
+     * Create a GET call for a server-sent event stream
+     *
+     * @param endpoint Endpoint relative to the API root
+     * @param lastEventId ID of the last event received, to resume after it, or null
+     * @return Unstarted call
+     */
+    @NonNull
+    Call newEventStreamCall(@NonNull String endpoint, @Nullable String lastEventId) {
+        Request.Builder request = newRequest(endpoint, "GET", null)
+                .header("Accept", "text/event-stream")
+                .header("Cache-Control", "no-cache");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return client.newCall(request.build());
+    }
+
+    private Request.Builder newRequest(String endpoint, String method, @Nullable RequestBody body) {
+        return new Request.Builder()
+                .url(baseUrl + "/" + endpoint)
+                .method(method, body)
+                .header("Accept", "application/json")
+                .header("X-API-Key", apiKey)
+                .header("X-Merchant-ID", merchantId)
+                .header("X-Test-Mode", testMode ? "true" : "false");
+    }
+
+    /**
+     * Derive the idempotency key for creating a payment. The key depends only on the
+     * merchant and order, so every attempt to create the same order carries the same key.
+     *
+     * @param merchantId Merchant ID
+     * @param orderId Order ID sent with the payment
+     * @return Hex-encoded SHA-256 of merchant and order ID
+     */
+    @NonNull
+    static String idempotencyKey(@NonNull String merchantId, @NonNull String orderId) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(merchantId.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(orderId.getBytes(StandardCharsets.UTF_8));
+            return ByteString.of(digest.digest()).hex();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to derive idempotency key", e);
+        }
+    }
+
+    /**
+     * Create a call without a request body
+     *
+     * @param endpoint Endpoint relative to the API root
+     * @param method HTTP method
+     * @return Unstarted call
+     */
+    @NonNull
+    Call newCall(@NonNull String endpoint, @NonNull String method) {
+        return newCall(endpoint, method, (RequestBody) null);
+    }
+
+    /**
+     * Enqueue a call and expose its result as a future. The future completes on
+     * the OkHttp callback thread; cancelling it cancels the call. A call held back
+     * by client-side rate limiting waits on the shared scheduler and is handed to
+     * the dispatcher only once its slot comes up.
+     *
+     * @param call Unstarted call
+     * @param parser Decoder for a successful response
+     * @return Future for the decoded result
+     */
+    @NonNull
+    <T> CompletableFuture<T> enqueue(@NonNull final Call call, @NonNull final ResponseParser<T> parser) {
+        final CallFuture<T> future = new CallFuture<>(call);
+        long waitNanos;
+        try {
+            waitNanos = rateLimitGovernor != null ? rateLimitGovernor.admit(call) : 0;
+        } catch (PaymentApiException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        if (waitNanos == 0) {
+            send(call, parser, future);
+            return future;
+        }
+        SharedScheduler.get().schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (call.isCanceled() || future.isDone()) {
+                    release(call);
+                    future.completeExceptionally(new IOException("Canceled"));
+                    return;
+                }
+                send(call, parser, future);
+            }
+        }, waitNanos, TimeUnit.NANOSECONDS);
+        return future;
+    }
+
+    /**
+     * Hand an admitted call to the dispatcher. Its admission is released once the
+     * call completes, so a call that fails before reaching the rate limiter (an open
+     * circuit, a cancellation before it starts) does not keep it.
+     */
+    private <T> void send(Call call, final ResponseParser<T> parser, final CompletableFuture<T> future) {
+        try {
+            call.enqueue(new Callback() {
+                @Override
+                public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                    release(call);
+                    future.completeExceptionally(e);
+                }
+
+                @Override
+                public void onResponse(@NonNull Call call, @NonNull Response response) {
+                    release(call);
+                    try {
+                        future.complete(handle(response, parser));
+                    } catch (Exception e) {
+                        future.completeExceptionally(e);
+                    }
+                }
+            });
+        } catch (IllegalStateException e) {
+            // Already executed
+            release(call);
+            future.completeExceptionally(e);
+        }
+    }
+
+    private void release(Call call) {
+        if (rateLimitGovernor != null) {
+            rateLimitGovernor.release(call);
+        }
+    }
+
+    /**
+     * Enqueue an idempotent call and, if it has not completed within hedgeDelayNanos,
+     * enqueue a second copy. The first successful response wins and the other call is
+     * cancelled. If the original call fails before the hedge is sent, the future fails
+     * with its error; once both are in flight, it fails only if both fail.
+     *
+     * @param calls Creates a fresh call for each attempt
+     * @param parser Decoder for a successful response
+     * @param hedgeDelayNanos Delay before sending the second call
+     * @return Future for the decoded result; cancelling it cancels both calls
+     */
+    @NonNull
+    <T> CompletableFuture<T> enqueueHedged(@NonNull final Supplier<Call> calls, @NonNull final ResponseParser<T> parser,
+                                           long hedgeDelayNanos) {
+        final HedgedFuture<T> result = new HedgedFuture<>();
+        result.attempt(enqueue(calls.get(), parser));
+        result.hedgeTimer = SharedScheduler.get().schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (result.reserveHedge()) {
+                    result.attempt(enqueue(calls.get(), parser));
+                }
+            }
+        }, hedgeDelayNanos, TimeUnit.NANOSECONDS);
+        if (result.isDone()) {
+            result.hedgeTimer.cancel(false);
+        }
+        return result;
+    }
+
+    /**
+     * Execute a call on the calling thread. Holds no monitors while waiting, so it is
+     * safe to call from virtual threads.
+     *
+     * @param call Unstarted call
+     * @param parser Decoder for a successful response
+     * @return Decoded result
+     * @throws IOException If the request fails or the API returns an error
+     */
+    <T> T execute(@NonNull Call call, @NonNull ResponseParser<T> parser) throws IOException {
+        return handle(call.execute(), parser);
+    }
+
+    /**
+     * Wait for a future on the calling thread, rethrowing its failure as thrown by
+     * {@link #execute}. Cancels the future if the thread is interrupted.
+     *
+     * @param future Future to wait for
+     * @return Result
+     * @throws IOException If the request failed or the API returned an error
+     */
+    static <T> T await(@NonNull CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for API response");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException("API request failed", cause);
+        }
+    }
+
+    private static <T> T handle(Response response, ResponseParser<T> parser) throws IOException {
+        try {
+            if (!response.isSuccessful()) {
+                throw toApiException(response);
+            }
+            ResponseBody body = response.body();
+            if (body == null) {
+                throw new IOException("Empty API response");
+            }
+            return parser.parse(body);
+        } catch (JSONException e) {
+            throw new RuntimeException("Failed to parse API response", e);
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * Convert an error response into a PaymentApiException, using the documented
+     * {"error": {"code", "message", "details"}} envelope when present
+     *
+     * @param response Unsuccessful response
+     * @return Exception describing the error
+     */
+    @NonNull
+    static PaymentApiException toApiException(@NonNull Response response) {
+        String body = null;
+        ResponseBody responseBody = response.body();
+        if (responseBody != null) {
+            try {
+                body = responseBody.string();
+            } catch (IOException e) {
+                // Body unavailable; keep the HTTP status line
+            }
+        }
+        return toApiException(response.code(), response.message(), body);
+    }
+
+    /**
+     * Convert an error status and body into a PaymentApiException
+     *
+     * @param httpStatus HTTP status code
+     * @param statusMessage HTTP status message
+     * @param body Response body, or null
+     * @return Exception describing the error
+     */
+    @NonNull
+    static PaymentApiException toApiException(int httpStatus, @NonNull String statusMessage, @Nullable String body) {
+        String code = "http_" + httpStatus;
+        String message = statusMessage;
+        String details = null;
+
+        if (body != null) {
+            try {
+                JSONObject error = new JSONObject(body).optJSONObject("error");
+                if (error != null) {
+                    code = error.optString("code", code);
+                    message = error.optString("message", message);
+                    details = error.optString("details", null);
+                }
+            } catch (JSONException e) {
+                // Not a JSON error envelope; keep the HTTP status line
+            }
+        }
+        return new PaymentApiException(httpStatus, code, message, details);
+    }
+
+    /**
+     * Future over an original call and an optional hedge; the first success wins
+     */
+    private static final class HedgedFuture<T> extends CompletableFuture<T> {
+        private final List<CompletableFuture<T>> attempts = new CopyOnWriteArrayList<>();
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private final AtomicReference<Throwable> firstError = new AtomicReference<>();
+        volatile Future<?> hedgeTimer;
+
+        /**
+         * @return Whether a hedge may be sent; false once every attempt has already failed
+         */
+        boolean reserveHedge() {
+            while (true) {
+                int current = pending.get();
+                if (current == 0 || isDone()) {
+                    return false;
+                }
+                if (pending.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void attempt(final CompletableFuture<T> attempt) {
+            attempts.add(attempt);
+            if (isDone()) {
+                attempt.cancel(true);
+                return;
+            }
+            attempt.whenComplete(new BiConsumer<T, Throwable>() {
+                @Override
+                public void accept(T value, Throwable error) {
+                    if (error == null) {
+                        if (complete(value)) {
+                            cancelAttempts();
+                        }
+                        return;
+                    }
+                    firstError.compareAndSet(null, error);
+                    if (pending.decrementAndGet() == 0) {
+                        completeExceptionally(firstError.get());
+                        cancelAttempts();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                cancelAttempts();
+            }
+            return cancelled;
+        }
+
+        private void cancelAttempts() {
+            Future<?> timer = hedgeTimer;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            for (CompletableFuture<T> attempt : attempts) {
+                attempt.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Future that aborts its HTTP call when cancelled
+     */
+    private static final class CallFuture<T> extends CompletableFuture<T> {
+        private final Call call;
+
+        CallFuture(Call call) {
+            this.call = call;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                call.cancel();
+            }
+            return cancelled;
+        }
+    }
+}
@@ -11,10 +11,6 @@
 package com.asiancryptopay.sdk;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.os.Handler;
-import android.os.Looper;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -30,20 +26,30 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.TimeZone;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 
 import okhttp3.Call;
 import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -58,6 +64,7 @@ public class AsianCryptoPayment {
     private static final String SDK_VERSION = "1.0.0";
     private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
     private static final String DEFAULT_API_ENDPOINT = "https://api.asiancryptopay.com";
+    private static final int HEDGE_MIN_SAMPLES = 20;
     
     // Configuration
     private final String apiKey;
@@ -71,17 +78,40 @@ public class AsianCryptoPayment {
     // HTTP Client
     private final OkHttpClient httpClient;
     
+    // Signed request path for the future-based and blocking APIs
+    private final ApiTransport apiTransport;
+    private final AsianCryptoPaymentAsync asyncClient;
+    private final SyncClient syncClient;
+    
+    // Batched lookups by transaction ID
+    private final PaymentMultiGet paymentMultiGet;
+    
+    // Pipelined creation of payment batches
+    private final PaymentBatchCreator paymentBatchCreator;
+    
+    // All exchange rates from the last /exchange-rates/all load
+    private final ExchangeRateCache exchangeRateCache;
+    
+    // Per-endpoint latency of recent calls
+    private final LatencyTracker latencyTracker;
+    
+    // Latency percentile after which getPayment sends a hedge (0 when disabled)
+    private final double hedgePercentile;
+    
     // Country-specific compliance module
     private final CountryComplianceModule countryModule;
     
     // Security module
     private final SecurityModule securityModule;
     
-    // Android context
+    // Android context (null for headless builds)
     private final Context context;
     
-    // Handler for UI thread callbacks
-    private final Handler mainHandler;
+    // Executor that callback API results are delivered on
+    private final Executor callbackExecutor;
+    
+    // Logging sink
+    private final SdkLogger logger;
     
     /**
      * Builder class for AsianCryptoPayment
@@ -90,12 +120,30 @@ public class AsianCryptoPayment {
         private final String apiKey;
         private final String merchantId;
         private final String countryCode;
-        private final Context context;
+        private Context context = null;
         
         private boolean testMode = false;
         private String apiEndpoint = DEFAULT_API_ENDPOINT;
+        private List<String> regionalEndpoints = null;
         private List<String> supportedCryptocurrencies = new ArrayList<>();
         private Map<String, Object> webhookConfig = null;
+        private TransportConfig transportConfig = TransportConfig.defaults();
+        private boolean prewarm = false;
+        private SdkLogger logger = null;
+        private Executor callbackExecutor = null;
+        private boolean rateLimiting = true;
+        private long rateLimitMaxWaitMillis = TimeUnit.SECONDS.toMillis(30);
+        private RetryPolicy retryPolicy = RetryPolicy.defaults();
+        private double hedgePercentile = 0;
+        private int circuitFailureThreshold = 5;
+        private long circuitOpenMillis = TimeUnit.SECONDS.toMillis(15);
+        private CircuitBreakerListener circuitBreakerListener = null;
+        private boolean adaptiveTimeouts = true;
+        private long minTimeoutMillis = TimeUnit.SECONDS.toMillis(5);
+        private long maxTimeoutMillis = TimeUnit.SECONDS.toMillis(30);
+        private final Map<ApiEndpoint, Long> endpointTimeouts = new EnumMap<>(ApiEndpoint.class);
+        private long exchangeRateTtlMillis = ExchangeRateCache.DEFAULT_TTL_MILLIS;
+        private long exchangeRateRefreshAheadMillis = ExchangeRateCache.DEFAULT_REFRESH_AHEAD_MILLIS;
         
         /**
          * Initialize builder with required parameters
@@ -106,7 +154,20 @@ public class AsianCryptoPayment {
          * @param countryCode Two-letter country code (MY, SG, ID, TH, BN, KH, VN, LA)
          */
         public Builder(@NonNull Context context, @NonNull String apiKey, @NonNull String merchantId, @NonNull String countryCode) {
+            this(apiKey, merchantId, countryCode);
             this.context = context.getApplicationContext();
+        }
+        
+        /**
+         * Initialize a headless builder for plain JVM use (server jobs, benchmarks).
+         * Headless instances use no android.* classes: callback API results are delivered
+         * on the I/O thread and logging is disabled unless a logger is set.
+         * 
+         * @param apiKey Merchant API key
+         * @param merchantId Merchant ID
+         * @param countryCode Two-letter country code (MY, SG, ID, TH, BN, KH, VN, LA)
+         */
+        public Builder(@NonNull String apiKey, @NonNull String merchantId, @NonNull String countryCode) {
             this.apiKey = apiKey;
             this.merchantId = merchantId;
             this.countryCode = countryCode;
@@ -138,6 +199,24 @@ public class AsianCryptoPayment {
          */
         public Builder setApiEndpoint(@NonNull String apiEndpoint) {
             this.apiEndpoint = apiEndpoint;
+            this.regionalEndpoints = null;
+            return this;
+        }
+        
+        /**
+         * Set regional API endpoints. The SDK probes them in the background and sends
+         * each request to the healthy endpoint with the lowest latency, failing over
+         * when one degrades. Endpoints must differ only in scheme, host and port.
+         * 
+         * @param apiEndpoints Regional API endpoints, preferred first until probed
+         * @return Builder instance
+         */
+        public Builder setApiEndpoints(@NonNull List<String> apiEndpoints) {
+            if (apiEndpoints.isEmpty()) {
+                throw new IllegalArgumentException("At least one API endpoint is required");
+            }
+            this.apiEndpoint = apiEndpoints.get(0);
+            this.regionalEndpoints = apiEndpoints.size() > 1 ? new ArrayList<>(apiEndpoints) : null;
             return this;
         }
         
@@ -166,6 +245,212 @@ public class AsianCryptoPayment {
             return this;
         }
         
+        /**
+         * Set transport configuration (connection pool, dispatcher, HTTP/2, TLS sessions).
+         * Instances built with equal configurations share one transport.
+         * 
+         * @param transportConfig Transport configuration
+         * @return Builder instance
+         */
+        public Builder setTransportConfig(@NonNull TransportConfig transportConfig) {
+            this.transportConfig = transportConfig;
+            return this;
+        }
+        
+        /**
+         * Set logger. Defaults to logcat on Android and to no logging for headless builds.
+         * 
+         * @param logger Logging sink
+         * @return Builder instance
+         */
+        public Builder setLogger(@NonNull SdkLogger logger) {
+            this.logger = logger;
+            return this;
+        }
+        
+        /**
+         * Set the executor that callback API results are delivered on. Defaults to the
+         * main thread on Android and to {@link CallbackExecutors#direct()} for headless
+         * builds. Use {@link CallbackExecutors#direct()} to receive results on the I/O
+         * thread without a handoff.
+         * 
+         * @param callbackExecutor Executor for callbacks
+         * @return Builder instance
+         */
+        public Builder setCallbackExecutor(@NonNull Executor callbackExecutor) {
+            this.callbackExecutor = callbackExecutor;
+            return this;
+        }
+        
+        /**
+         * Enable or disable client-side rate limiting. When enabled (the default), requests
+         * are paced per endpoint against the documented limits and the X-RateLimit headers
+         * returned by the API, instead of being sent only to fail with rate_limit_exceeded.
+         * 
+         * @param rateLimiting Whether to pace requests
+         * @return Builder instance
+         */
+        public Builder setRateLimiting(boolean rateLimiting) {
+            this.rateLimiting = rateLimiting;
+            return this;
+        }
+        
+        /**
+         * Set the longest time a request may be held back by client-side rate limiting.
+         * A request that would wait longer fails at once with rate_limit_exceeded.
+         * 
+         * @param maxWait Maximum wait
+         * @param unit Unit of maxWait
+         * @return Builder instance
+         */
+        public Builder setRateLimitMaxWait(long maxWait, @NonNull TimeUnit unit) {
+            if (maxWait < 0) {
+                throw new IllegalArgumentException("Max wait must not be negative");
+            }
+            this.rateLimitMaxWaitMillis = unit.toMillis(maxWait);
+            return this;
+        }
+        
+        /**
+         * Set the retry policy for transient failures. Defaults to {@link RetryPolicy#defaults()};
+         * use {@link RetryPolicy#none()} to disable retries.
+         * 
+         * @param retryPolicy Retry policy
+         * @return Builder instance
+         */
+        public Builder setRetryPolicy(@NonNull RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+        
+        /**
+         * Enable hedged getPayment requests. If a payment lookup has not answered within
+         * the given percentile of recent payments/{id} latency, a second identical request
+         * is sent and whichever answers first is used. Hedging starts once enough
+         * latency samples have been collected.
+         * 
+         * @param percentile Latency percentile between 0 and 1 (e.g. 0.95), or 0 to disable
+         * @return Builder instance
+         */
+        public Builder setHedging(double percentile) {
+            if (percentile < 0.0 || percentile >= 1.0) {
+                throw new IllegalArgumentException("Hedging percentile must be at least 0 and below 1");
+            }
+            this.hedgePercentile = percentile;
+            return this;
+        }
+        
+        /**
+         * Configure the per-endpoint circuit breaker. After failureThreshold consecutive
+         * failures (network errors, timeouts, 5xx responses) requests to that endpoint fail
+         * fast with {@link CircuitOpenException} for openDuration, then a single probe
+         * request tests whether the endpoint has recovered. Defaults to 5 failures and 15 seconds.
+         * 
+         * @param failureThreshold Consecutive failures that open the circuit, or 0 to disable
+         * @param openDuration Time the circuit stays open before probing
+         * @param unit Unit of openDuration
+         * @return Builder instance
+         */
+        public Builder setCircuitBreaker(int failureThreshold, long openDuration, @NonNull TimeUnit unit) {
+            if (failureThreshold < 0 || openDuration <= 0) {
+                throw new IllegalArgumentException("Circuit breaker threshold must not be negative and open duration must be positive");
+            }
+            this.circuitFailureThreshold = failureThreshold;
+            this.circuitOpenMillis = unit.toMillis(openDuration);
+            return this;
+        }
+        
+        /**
+         * Set a listener for circuit breaker state changes
+         * 
+         * @param listener Listener
+         * @return Builder instance
+         */
+        public Builder setCircuitBreakerListener(@NonNull CircuitBreakerListener listener) {
+            this.circuitBreakerListener = listener;
+            return this;
+        }
+        
+        /**
+         * Enable or disable adaptive timeouts. When enabled (the default), each call's
+         * connect, read and write timeouts are derived from the 99th percentile of recent
+         * latency for its endpoint plus a margin, within the bounds set by
+         * {@link #setTimeoutBounds(long, long, TimeUnit)}. When disabled, every call uses
+         * the upper bound.
+         * 
+         * @param adaptiveTimeouts Whether to adapt timeouts to observed latency
+         * @return Builder instance
+         */
+        public Builder setAdaptiveTimeouts(boolean adaptiveTimeouts) {
+            this.adaptiveTimeouts = adaptiveTimeouts;
+            return this;
+        }
+        
+        /**
+         * Set the bounds for adaptive timeouts. The upper bound also applies until an
+         * endpoint has enough latency samples. Defaults to 5 and 30 seconds.
+         * 
+         * @param minTimeout Lower bound
+         * @param maxTimeout Upper bound
+         * @param unit Unit of minTimeout and maxTimeout
+         * @return Builder instance
+         */
+        public Builder setTimeoutBounds(long minTimeout, long maxTimeout, @NonNull TimeUnit unit) {
+            if (minTimeout <= 0 || maxTimeout < minTimeout) {
+                throw new IllegalArgumentException("Timeout bounds must satisfy 0 < minTimeout <= maxTimeout");
+            }
+            this.minTimeoutMillis = unit.toMillis(minTimeout);
+            this.maxTimeoutMillis = unit.toMillis(maxTimeout);
+            return this;
+        }
+        
+        /**
+         * Use a fixed timeout for one endpoint instead of the adaptive value
+         * 
+         * @param endpoint Endpoint: "POST /payments", "GET /payments", "GET /payments/{id}",
+         *                 "POST /payments/{id}/cancel", "/exchange-rates" or "other"
+         * @param timeout Connect, read and write timeout
+         * @param unit Unit of timeout
+         * @return Builder instance
+         */
+        public Builder setEndpointTimeout(@NonNull String endpoint, long timeout, @NonNull TimeUnit unit) {
+            if (timeout <= 0) {
+                throw new IllegalArgumentException("Timeout must be greater than zero");
+            }
+            this.endpointTimeouts.put(ApiEndpoint.forLabel(endpoint), unit.toMillis(timeout));
+            return this;
+        }
+        
+        /**
+         * Configure the exchange rate cache. All rates are loaded together and kept for
+         * ttl; a read within refreshAhead of expiry reloads them in the background while
+         * the cached rates are still served. Defaults to 60 and 15 seconds.
+         * 
+         * @param ttl Time a loaded rate may be served
+         * @param refreshAhead Time before expiry at which reads start a reload, or 0 to reload only on expiry
+         * @param unit Unit of ttl and refreshAhead
+         * @return Builder instance
+         */
+        public Builder setExchangeRateCache(long ttl, long refreshAhead, @NonNull TimeUnit unit) {
+            if (ttl <= 0 || refreshAhead < 0 || refreshAhead >= ttl) {
+                throw new IllegalArgumentException("Exchange rate cache must satisfy 0 <= refreshAhead < ttl");
+            }
+            this.exchangeRateTtlMillis = unit.toMillis(ttl);
+            this.exchangeRateRefreshAheadMillis = unit.toMillis(refreshAhead);
+            return this;
+        }
+        
+        /**
+         * Open a connection to the API endpoint in the background when the SDK is built,
+         * so the first request does not pay for DNS resolution and the TLS handshake
+         * 
+         * @return Builder instance
+         */
+        public Builder prewarm() {
+            this.prewarm = true;
+            return this;
+        }
+        
         /**
          * Build AsianCryptoPayment instance
          * 
@@ -191,15 +476,72 @@ public class AsianCryptoPayment {
         this.supportedCryptocurrencies = builder.supportedCryptocurrencies;
         this.webhookConfig = builder.webhookConfig;
         
-        // Initialize HTTP client
-        this.httpClient = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
+        // Derive HTTP client from the shared transport so pooled connections,
+        // dispatcher threads and TLS sessions survive SDK re-initialization
+        this.httpClient = SharedTransport.client(builder.transportConfig).newBuilder()
+                .connectTimeout(builder.maxTimeoutMillis, TimeUnit.MILLISECONDS)
+                .readTimeout(builder.maxTimeoutMillis, TimeUnit.MILLISECONDS)
+                .writeTimeout(builder.maxTimeoutMillis, TimeUnit.MILLISECONDS)
                 .build();
         
-        // Initialize main thread handler
-        this.mainHandler = new Handler(Looper.getMainLooper());
+        // Android defaults come through the CallbackExecutors and SdkLogger seams;
+        // headless builds touch no android.* classes
+        if (this.context != null) {
+            this.callbackExecutor = builder.callbackExecutor != null ? builder.callbackExecutor : CallbackExecutors.mainThread();
+            this.logger = builder.logger != null ? builder.logger : SdkLogger.logcat(TAG);
+        } else {
+            this.callbackExecutor = builder.callbackExecutor != null ? builder.callbackExecutor : CallbackExecutors.direct();
+            this.logger = builder.logger != null ? builder.logger : SdkLogger.NONE;
+        }
+        
+        // Per-request policies, outermost first; ApiTransport adds signing innermost
+        HttpUrl apiRoot = apiRoot(this.apiEndpoint);
+        List<Interceptor> policies = new ArrayList<>();
+        if (builder.retryPolicy.getMaxAttempts() > 1) {
+            policies.add(new RetryInterceptor(builder.retryPolicy, apiRoot, this.logger));
+        }
+        if (builder.circuitFailureThreshold > 0) {
+            policies.add(new CircuitBreaker(apiRoot, builder.circuitFailureThreshold, builder.circuitOpenMillis,
+                    builder.circuitBreakerListener, this.logger));
+        }
+        RateLimitGovernor rateLimitGovernor = null;
+        if (builder.rateLimiting) {
+            rateLimitGovernor = new RateLimitGovernor(apiRoot, builder.rateLimitMaxWaitMillis);
+            policies.add(rateLimitGovernor);
+        }
+        this.latencyTracker = new LatencyTracker(apiRoot);
+        this.hedgePercentile = builder.hedgePercentile;
+        policies.add(new AdaptiveTimeouts(apiRoot, this.latencyTracker, builder.adaptiveTimeouts,
+                builder.minTimeoutMillis, builder.maxTimeoutMillis, builder.endpointTimeouts));
+        policies.add(this.latencyTracker);
+        RegionRouter regionRouter = null;
+        if (builder.regionalEndpoints != null) {
+            List<HttpUrl> regions = new ArrayList<>();
+            for (String endpoint : builder.regionalEndpoints) {
+                HttpUrl region = apiRoot(endpoint);
+                if (!region.encodedPath().equals(apiRoot.encodedPath())) {
+                    throw new IllegalArgumentException("Regional endpoints must share the API path: " + endpoint);
+                }
+                regions.add(region);
+            }
+            regionRouter = new RegionRouter(regions, this.httpClient, this.logger);
+            policies.add(regionRouter);
+        }
+        
+        // Initialize signed request transport, future-based and blocking APIs
+        this.apiTransport = new ApiTransport(this.httpClient, this.apiEndpoint, this.apiKey, this.merchantId,
+                this.testMode, policies, rateLimitGovernor);
+        this.asyncClient = new AsianCryptoPaymentAsync(this, this.apiTransport);
+        this.syncClient = new SyncClient(this, this.apiTransport);
+        this.paymentMultiGet = new PaymentMultiGet(this.apiTransport, this.logger);
+        this.paymentBatchCreator = new PaymentBatchCreator(this.apiTransport, new PaymentBatchCreator.CallFactory() {
+            @Override
+            public Call newCall(@NonNull PaymentDetails paymentDetails) {
+                return newCreatePaymentCall(paymentDetails);
+            }
+        });
+        this.exchangeRateCache = new ExchangeRateCache(this.apiTransport, this.logger, builder.exchangeRateTtlMillis,
+                builder.exchangeRateRefreshAheadMillis);
         
         // Initialize security module
         this.securityModule = new SecurityModule(this.apiKey);
@@ -207,7 +549,37 @@ public class AsianCryptoPayment {
         // Initialize country-specific module
         this.countryModule = createCountryModule(this.countryCode);
         
-        Log.i(TAG, "SDK initialized for country: " + this.countryCode);
+        // Warm the connection pool if requested
+        if (builder.prewarm) {
+            if (builder.regionalEndpoints != null) {
+                for (String endpoint : builder.regionalEndpoints) {
+                    ConnectionPrewarmer.prewarm(this.httpClient, endpoint);
+                }
+            } else {
+                ConnectionPrewarmer.prewarm(this.httpClient, this.apiEndpoint);
+            }
+        }
+        
+        // Rank regional endpoints; the first probe also warms their connections
+        if (regionRouter != null) {
+            regionRouter.startProbing();
+        }
+        
+        logger.info("SDK initialized for country: " + this.countryCode);
+    }
+    
+    /**
+     * Parse the API endpoint URL
+     * 
+     * @param apiEndpoint API base URL
+     * @return Parsed URL
+     */
+    private static HttpUrl apiRoot(String apiEndpoint) {
+        HttpUrl url = HttpUrl.parse(apiEndpoint);
+        if (url == null) {
+            throw new IllegalArgumentException("Invalid API endpoint: " + apiEndpoint);
+        }
+        return url;
     }
     
     /**
@@ -246,66 +618,91 @@ public class AsianCryptoPayment {
      * @param callback Callback for payment result
      */
     public void createPayment(@NonNull PaymentDetails paymentDetails, @NonNull PaymentCallback callback) {
-        // Validate payment details
+        Call call;
         try {
-            validatePaymentDetails(paymentDetails);
+            call = newCreatePaymentCall(paymentDetails);
         } catch (IllegalArgumentException e) {
             callback.onError(e);
             return;
         }
         
+        // Make API request
+        deliver(apiTransport.enqueue(call, AsianCryptoPaymentAsync.PAYMENT_PARSER), callback);
+    }
+    
+    /**
+     * Validate payment details and prepare the POST /payments call. The call carries
+     * an idempotency key derived from the order ID, so retries cannot create a
+     * second payment for the same order.
+     * 
+     * @param paymentDetails Payment details
+     * @return Unstarted call
+     * @throws IllegalArgumentException If the payment details fail validation
+     */
+    Call newCreatePaymentCall(@NonNull PaymentDetails paymentDetails) {
+        // Validate payment details
+        validatePaymentDetails(paymentDetails);
+        
         // Apply country-specific validations
-        try {
-            countryModule.validatePayment(paymentDetails);
-        } catch (IllegalArgumentException e) {
-            callback.onError(e);
-            return;
-        }
+        countryModule.validatePayment(paymentDetails);
         
-        // Prepare payment data
-        JSONObject paymentData = new JSONObject();
-        try {
-            paymentData.put("merchant_id", merchantId);
-            paymentData.put("amount", paymentDetails.getAmount().toString());
-            paymentData.put("currency", paymentDetails.getCurrency());
-            paymentData.put("crypto_currency", paymentDetails.getCryptoCurrency());
-            paymentData.put("description", paymentDetails.getDescription());
-            paymentData.put("order_id", paymentDetails.getOrderId() != null ? paymentDetails.getOrderId() : "order-" + System.currentTimeMillis());
-            paymentData.put("customer_email", paymentDetails.getCustomerEmail());
-            paymentData.put("customer_name", paymentDetails.getCustomerName());
-            paymentData.put("callback_url", paymentDetails.getCallbackUrl());
-            paymentData.put("success_url", paymentDetails.getSuccessUrl());
-            paymentData.put("cancel_url", paymentDetails.getCancelUrl());
-            paymentData.put("country_code", countryCode);
-            paymentData.put("test_mode", testMode);
-            
-            // Add metadata if available
-            if (paymentDetails.getMetadata() != null) {
-                paymentData.put("metadata", new JSONObject(paymentDetails.getMetadata()));
-            }
-        } catch (JSONException e) {
-            callback.onError(new RuntimeException("Failed to create payment data", e));
-            return;
-        }
+        // Encode payment data straight into the request sink when the call is sent
+        String orderId = paymentDetails.getOrderId() != null ? paymentDetails.getOrderId() : "order-" + IdGenerator.nextId();
+        RequestBody paymentData = PaymentJsonCodec.paymentRequestBody(paymentDetails, merchantId, orderId, countryCode,
+                testMode);
         
-        // Make API request
-        String endpoint = "payments";
-        makeApiRequest(endpoint, "POST", paymentData, new ApiCallback() {
-            @Override
-            public void onSuccess(JSONObject response) {
-                try {
-                    Payment payment = Payment.fromJson(response);
-                    callback.onSuccess(payment);
-                } catch (JSONException e) {
-                    callback.onError(new RuntimeException("Failed to parse payment response", e));
-                }
-            }
-            
-            @Override
-            public void onError(Exception e) {
-                callback.onError(e);
-            }
-        });
+        return apiTransport.newCall("payments", "POST", paymentData, ApiTransport.idempotencyKey(merchantId, orderId));
+    }
+    
+    /**
+     * Create a batch of payments, e.g. an invoice run. The whole batch is validated
+     * before anything is sent; payments that pass are then created with up to four
+     * requests in flight. A payment that fails validation or creation does not stop
+     * the rest of the batch.
+     * 
+     * @param batch Payment details
+     * @param callback Callback for one result per payment, in batch order
+     */
+    public void createPayments(@NonNull List<PaymentDetails> batch, @NonNull final PaymentBatchCallback callback) {
+        submitPayments(batch, PaymentBatchCreator.DEFAULT_CONCURRENCY).whenCompleteAsync(
+                new BiConsumer<List<PaymentCreationResult>, Throwable>() {
+                    @Override
+                    public void accept(List<PaymentCreationResult> results, Throwable error) {
+                        if (error != null) {
+                            callback.onError(unwrap(error));
+                        } else {
+                            callback.onComplete(results);
+                        }
+                    }
+                }, callbackExecutor);
+    }
+    
+    /**
+     * Callback for batch payment creation
+     */
+    public interface PaymentBatchCallback {
+        /**
+         * Every payment in the batch has been attempted
+         * 
+         * @param results One result per payment, in batch order; check each for failure
+         */
+        void onComplete(List<PaymentCreationResult> results);
+        
+        /**
+         * The batch could not be run at all
+         */
+        void onError(Exception e);
+    }
+    
+    /**
+     * Validate a batch of payments and start creating those that pass
+     * 
+     * @param batch Payment details
+     * @param maxConcurrency Maximum requests in flight
+     * @return Future for one result per payment, in batch order
+     */
+    CompletableFuture<List<PaymentCreationResult>> submitPayments(@NonNull List<PaymentDetails> batch, int maxConcurrency) {
+        return paymentBatchCreator.create(batch, maxConcurrency);
     }
     
     /**
@@ -320,23 +717,155 @@ public class AsianCryptoPayment {
             return;
         }
         
-        String endpoint = "payments/" + paymentId;
-        makeApiRequest(endpoint, "GET", null, new ApiCallback() {
+        deliver(fetchPayment(paymentId), callback);
+    }
+    
+    /**
+     * Start a payment lookup, hedged if hedging is enabled and enough latency samples exist
+     * 
+     * @param paymentId Payment ID
+     * @return Future for the payment
+     */
+    CompletableFuture<Payment> fetchPayment(@NonNull String paymentId) {
+        return fetchPayment(paymentId, hedgeDelayNanos());
+    }
+    
+    /**
+     * Start a payment lookup
+     * 
+     * @param paymentId Payment ID
+     * @param hedgeDelayNanos Delay before hedging, or -1 for a single request
+     * @return Future for the payment
+     */
+    CompletableFuture<Payment> fetchPayment(@NonNull String paymentId, long hedgeDelayNanos) {
+        final String endpoint = "payments/" + paymentId;
+        if (hedgeDelayNanos < 0) {
+            return apiTransport.enqueue(apiTransport.newCall(endpoint, "GET"), AsianCryptoPaymentAsync.PAYMENT_PARSER);
+        }
+        return apiTransport.enqueueHedged(new Supplier<Call>() {
             @Override
-            public void onSuccess(JSONObject response) {
-                try {
-                    Payment payment = Payment.fromJson(response);
-                    callback.onSuccess(payment);
-                } catch (JSONException e) {
-                    callback.onError(new RuntimeException("Failed to parse payment response", e));
+            public Call get() {
+                return apiTransport.newCall(endpoint, "GET");
+            }
+        }, AsianCryptoPaymentAsync.PAYMENT_PARSER, hedgeDelayNanos);
+    }
+    
+    /**
+     * @return Delay before hedging a payment lookup, or -1 if lookups are not hedged
+     */
+    long hedgeDelayNanos() {
+        if (hedgePercentile <= 0) {
+            return -1;
+        }
+        return latencyTracker.histogram(ApiEndpoint.PAYMENT_GET).percentile(hedgePercentile, HEDGE_MIN_SAMPLES);
+    }
+    
+    /**
+     * Get many payments by transaction ID. IDs are looked up in batches through the
+     * payments listing where the API supports filtering by ID, otherwise with up to
+     * eight concurrent single lookups.
+     * 
+     * @param transactionIds Transaction IDs
+     * @param callback Callback for the payments found, keyed by transaction ID in request order
+     */
+    public void getPayments(@NonNull Collection<String> transactionIds, @NonNull final PaymentsByIdCallback callback) {
+        CompletableFuture<Map<String, Payment>> future;
+        try {
+            future = paymentMultiGet.fetch(transactionIds, PaymentMultiGet.DEFAULT_CONCURRENCY);
+        } catch (IllegalArgumentException e) {
+            callback.onError(e);
+            return;
+        }
+        future.whenCompleteAsync(new BiConsumer<Map<String, Payment>, Throwable>() {
+            @Override
+            public void accept(Map<String, Payment> payments, Throwable error) {
+                if (error != null) {
+                    callback.onError(unwrap(error));
+                } else {
+                    callback.onSuccess(payments);
                 }
             }
-            
+        }, callbackExecutor);
+    }
+    
+    /**
+     * Callback for lookups of many payments by transaction ID
+     */
+    public interface PaymentsByIdCallback {
+        /**
+         * @param payments Payments found, keyed by transaction ID in request order;
+         *                 IDs the API does not know are absent
+         */
+        void onSuccess(Map<String, Payment> payments);
+        
+        void onError(Exception e);
+    }
+    
+    /**
+     * Start a lookup of many payments by transaction ID
+     * 
+     * @param transactionIds Transaction IDs
+     * @param maxConcurrency Maximum requests in flight
+     * @return Future for the payments found
+     */
+    CompletableFuture<Map<String, Payment>> fetchPayments(@NonNull Collection<String> transactionIds, int maxConcurrency) {
+        return paymentMultiGet.fetch(transactionIds, maxConcurrency);
+    }
+    
+    /**
+     * Get the exchange rate between a cryptocurrency and a fiat currency. Served from
+     * the exchange rate cache when it holds unexpired rates, otherwise after loading
+     * all rates.
+     * 
+     * @param crypto Cryptocurrency code (e.g., BTC, ETH, USDT)
+     * @param fiat Fiat currency code (e.g., SGD, MYR, IDR)
+     * @param callback Callback for the exchange rate
+     */
+    public void getExchangeRate(@NonNull String crypto, @NonNull String fiat, @NonNull final ExchangeRateCallback callback) {
+        exchangeRateCache.get(crypto, fiat).whenCompleteAsync(new BiConsumer<ExchangeRate, Throwable>() {
             @Override
-            public void onError(Exception e) {
-                callback.onError(e);
+            public void accept(ExchangeRate rate, Throwable error) {
+                if (error != null) {
+                    callback.onError(unwrap(error));
+                } else {
+                    callback.onSuccess(rate);
+                }
             }
-        });
+        }, callbackExecutor);
+    }
+    
+    /**
+     * Callback for exchange rate requests
+     */
+    public interface ExchangeRateCallback {
+        void onSuccess(ExchangeRate rate);
+        
+        void onError(Exception e);
+    }
+    
+    /**
+     * Read an exchange rate from the cache without waiting, e.g. for a price display
+     * that refreshes several times a second. Takes no locks. If the rates are missing
+     * or close to expiry, a reload starts in the background.
+     * 
+     * @param crypto Cryptocurrency code (e.g., BTC, ETH, USDT)
+     * @param fiat Fiat currency code (e.g., SGD, MYR, IDR)
+     * @return Cached exchange rate, or null if none is loaded or it has expired
+     */
+    @Nullable
+    public ExchangeRate getCachedExchangeRate(@NonNull String crypto, @NonNull String fiat) {
+        return exchangeRateCache.peek(crypto, fiat);
+    }
+    
+    /**
+     * Get an exchange rate through the cache
+     * 
+     * @param crypto Cryptocurrency code
+     * @param fiat Fiat currency code
+     * @return Future for the exchange rate
+     */
+    CompletableFuture<ExchangeRate> fetchExchangeRate(@NonNull String crypto, @NonNull String fiat) {
+        return exchangeRateCache.get(crypto, fiat);
     }
     
     /**
@@ -346,66 +875,159 @@ public class AsianCryptoPayment {
      * @param callback Callback for payments result
      */
     public void getPayments(@Nullable PaymentFilters filters, @NonNull PaymentsListCallback callback) {
-        StringBuilder endpoint = new StringBuilder("payments");
+        String endpoint = buildPaymentsEndpoint(filters);
         
-        // Add query parameters if filters are provided
-        if (filters != null) {
-            endpoint.append("?");
-            
-            if (filters.getStatus() != null) {
-                endpoint.append("status=").append(filters.getStatus()).append("&");
-            }
-            
-            if (filters.getFromDate() != null) {
-                SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
-                sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
-                endpoint.append("from_date=").append(sdf.format(filters.getFromDate())).append("&");
-            }
-            
-            if (filters.getToDate() != null) {
-                SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
-                sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
-                endpoint.append("to_date=").append(sdf.format(filters.getToDate())).append("&");
-            }
-            
-            if (filters.getLimit() > 0) {
-                endpoint.append("limit=").append(filters.getLimit()).append("&");
-            }
-            
-            if (filters.getOffset() > 0) {
-                endpoint.append("offset=").append(filters.getOffset()).append("&");
-            }
-            
-            // Remove trailing '&' if present
-            if (endpoint.charAt(endpoint.length() - 1) == '&') {
-                endpoint.deleteCharAt(endpoint.length() - 1);
-            }
-        }
+        apiTransport.enqueue(apiTransport.newCall(endpoint, "GET"), AsianCryptoPaymentAsync.PAYMENT_PAGE_PARSER)
+                .whenCompleteAsync(new BiConsumer<PaymentPage, Throwable>() {
+                    @Override
+                    public void accept(PaymentPage page, Throwable error) {
+                        if (error != null) {
+                            callback.onError(unwrap(error));
+                        } else {
+                            callback.onSuccess(page.getPayments(), page.getTotal());
+                        }
+                    }
+                }, callbackExecutor);
+    }
+    
+    /**
+     * Get list of payments, delivering each payment as it is decoded from the response
+     * instead of materializing the whole page. Suited to large pages such as end-of-day
+     * exports. Payments and the final total are delivered in order on the callback
+     * executor; with {@link CallbackExecutors#direct()} no payment is retained after
+     * its onPayment call.
+     * 
+     * @param filters Filter parameters
+     * @param callback Callback receiving payments, then the total
+     */
+    public void getPayments(@Nullable PaymentFilters filters, @NonNull final PaymentStreamCallback callback) {
+        String endpoint = buildPaymentsEndpoint(filters);
         
-        makeApiRequest(endpoint.toString(), "GET", null, new ApiCallback() {
+        Consumer<Payment> consumer = new Consumer<Payment>() {
             @Override
-            public void onSuccess(JSONObject response) {
-                try {
-                    List<Payment> payments = new ArrayList<>();
-                    JSONArray paymentsArray = response.getJSONArray("payments");
-                    
-                    for (int i = 0; i < paymentsArray.length(); i++) {
-                        JSONObject paymentJson = paymentsArray.getJSONObject(i);
-                        payments.add(Payment.fromJson(paymentJson));
+            public void accept(final Payment payment) {
+                callbackExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onPayment(payment);
                     }
-                    
-                    int total = response.getInt("total");
-                    callback.onSuccess(payments, total);
-                } catch (JSONException e) {
-                    callback.onError(new RuntimeException("Failed to parse payments response", e));
-                }
-            }
-            
-            @Override
-            public void onError(Exception e) {
-                callback.onError(e);
+                });
             }
-        });
+        };
+        
+        apiTransport.enqueue(apiTransport.newCall(endpoint, "GET"), AsianCryptoPaymentAsync.streamingParser(consumer))
+                .whenCompleteAsync(new BiConsumer<Integer, Throwable>() {
+                    @Override
+                    public void accept(Integer total, Throwable error) {
+                        if (error != null) {
+                            callback.onError(unwrap(error));
+                        } else {
+                            callback.onComplete(total);
+                        }
+                    }
+                }, callbackExecutor);
+    }
+    
+    /**
+     * Callback for streamed payments listings
+     */
+    public interface PaymentStreamCallback {
+        /**
+         * Called once per payment, in response order
+         * 
+         * @param payment Decoded payment
+         */
+        void onPayment(Payment payment);
+        
+        /**
+         * Called after the last payment
+         * 
+         * @param total Total number of payments matching the filters
+         */
+        void onComplete(int total);
+        
+        /**
+         * Called if the request or decoding fails; payments already delivered remain valid
+         * 
+         * @param e Failure
+         */
+        void onError(Exception e);
+    }
+    
+    /**
+     * Build the payments listing endpoint with query parameters for the given filters
+     * 
+     * @param filters Filter parameters
+     * @return Endpoint relative to the API root
+     */
+    String buildPaymentsEndpoint(@Nullable PaymentFilters filters) {
+        return buildPaymentsEndpoint(filters,
+                filters != null ? filters.getLimit() : 0,
+                filters != null ? filters.getOffset() : 0);
+    }
+    
+    /**
+     * Build the payments listing endpoint for one page of a listing
+     * 
+     * @param filters Filter parameters (status and date range are used)
+     * @param limit Page size, or 0 for the API default
+     * @param offset Offset of the first payment, or 0
+     * @return Endpoint relative to the API root
+     */
+    String buildPaymentsEndpoint(@Nullable PaymentFilters filters, int limit, int offset) {
+        return buildPaymentsEndpoint(filters,
+                filters != null ? filters.getFromDate() : null,
+                filters != null ? filters.getToDate() : null,
+                limit, offset);
+    }
+    
+    /**
+     * Build the payments listing endpoint for one page of a date range
+     * 
+     * @param filters Filter parameters (only status is used)
+     * @param fromDate First day of the range (UTC), or null
+     * @param toDate Last day of the range (UTC), or null
+     * @param limit Page size, or 0 for the API default
+     * @param offset Offset of the first payment, or 0
+     * @return Endpoint relative to the API root
+     */
+    String buildPaymentsEndpoint(@Nullable PaymentFilters filters, @Nullable Date fromDate, @Nullable Date toDate,
+                                 int limit, int offset) {
+        StringBuilder endpoint = new StringBuilder("payments");
+        endpoint.append("?");
+        
+        // Add query parameters if filters are provided
+        if (filters != null && filters.getStatus() != null) {
+            endpoint.append("status=").append(filters.getStatus()).append("&");
+        }
+        
+        if (fromDate != null) {
+            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+            sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+            endpoint.append("from_date=").append(sdf.format(fromDate)).append("&");
+        }
+        
+        if (toDate != null) {
+            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+            sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+            endpoint.append("to_date=").append(sdf.format(toDate)).append("&");
+        }
+        
+        if (limit > 0) {
+            endpoint.append("limit=").append(limit).append("&");
+        }
+        
+        if (offset > 0) {
+            endpoint.append("offset=").append(offset).append("&");
+        }
+        
+        // Remove trailing '&' or a bare '?' if present
+        char last = endpoint.charAt(endpoint.length() - 1);
+        if (last == '&' || last == '?') {
+            endpoint.deleteCharAt(endpoint.length() - 1);
+        }
+        
+        return endpoint.toString();
     }
     
     /**
@@ -421,22 +1043,124 @@ public class AsianCryptoPayment {
         }
         
         String endpoint = "payments/" + paymentId + "/cancel";
-        makeApiRequest(endpoint, "POST", null, new ApiCallback() {
+        deliver(apiTransport.enqueue(apiTransport.newCall(endpoint, "POST"), AsianCryptoPaymentAsync.PAYMENT_PARSER), callback);
+    }
+    
+    /**
+     * Deliver the outcome of a payment request to a callback on the callback executor.
+     * Responses are decoded on the I/O thread before the handoff.
+     * 
+     * @param future Pending payment request
+     * @param callback Callback for payment result
+     */
+    private void deliver(CompletableFuture<Payment> future, final PaymentCallback callback) {
+        future.whenCompleteAsync(new BiConsumer<Payment, Throwable>() {
             @Override
-            public void onSuccess(JSONObject response) {
-                try {
-                    Payment payment = Payment.fromJson(response);
+            public void accept(Payment payment, Throwable error) {
+                if (error != null) {
+                    callback.onError(unwrap(error));
+                } else {
                     callback.onSuccess(payment);
-                } catch (JSONException e) {
-                    callback.onError(new RuntimeException("Failed to parse payment response", e));
                 }
             }
-            
-            @Override
-            public void onError(Exception e) {
-                callback.onError(e);
-            }
-        });
+        }, callbackExecutor);
+    }
+    
+    /**
+     * Unwrap a future failure into the exception reported to callbacks
+     * 
+     * @param error Failure cause, possibly wrapped by CompletableFuture
+     * @return Exception to report
+     */
+    static Exception unwrap(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof Exception ? (Exception) cause : new RuntimeException(cause);
+    }
+    
+    /**
+     * Get the CompletableFuture-based view of this SDK instance. Futures complete on
+     * the HTTP client's callback thread, and cancelling a future aborts its request.
+     * 
+     * @return AsianCryptoPaymentAsync instance
+     */
+    public AsianCryptoPaymentAsync async() {
+        return asyncClient;
+    }
+    
+    /**
+     * Get the blocking view of this SDK instance, for server-side use on worker or
+     * virtual threads. Requests run on the calling thread and never touch the main looper.
+     * 
+     * @return SyncClient instance
+     */
+    public SyncClient sync() {
+        return syncClient;
+    }
+    
+    /**
+     * Open a push-based status stream for one or more payments. Updates arrive over a
+     * single long-lived connection as soon as the API reports them, instead of by
+     * polling getPayment. The stream resumes by itself after a dropped connection,
+     * and switches to batched polling if the API does not offer the event stream.
+     * 
+     * @param transactionIds Transaction IDs to watch (more can be added with subscribe())
+     * @param listener Listener for status changes, called on the callback executor
+     * @return Open stream; close it when updates are no longer needed
+     */
+    public PaymentStatusStream openPaymentStatusStream(@NonNull Collection<String> transactionIds,
+                                                       @NonNull PaymentStatusListener listener) {
+        PaymentStatusStream stream = new PaymentStatusStream(apiTransport, paymentMultiGet, callbackExecutor, logger,
+                transactionIds, listener);
+        stream.start();
+        return stream;
+    }
+    
+    /**
+     * Create a poller that tracks the status of many open payments, merging their polls
+     * into batched listing queries. Use it where a status stream is not available.
+     * 
+     * @param listener Listener for status changes, called on the callback executor
+     * @return Poller with no payments tracked; close it when no longer needed
+     */
+    public PaymentStatusPoller newPaymentStatusPoller(@NonNull PaymentStatusListener listener) {
+        return new PaymentStatusPoller(paymentMultiGet, callbackExecutor, logger, listener);
+    }
+    
+    /**
+     * Create a processor for incoming webhooks, keyed with the secret set through
+     * {@link Builder#setWebhookConfig(String, String)} and logging to this SDK's logger.
+     * Use {@link WebhookProcessor.Builder} directly to tune its worker pool.
+     * 
+     * @return New WebhookProcessor; call shutdown() when it is no longer needed
+     * @throws IllegalStateException If no webhook configuration was set
+     */
+    public WebhookProcessor newWebhookProcessor() {
+        if (webhookConfig == null) {
+            throw new IllegalStateException("Webhook configuration is not set");
+        }
+        return new WebhookProcessor.Builder((String) webhookConfig.get("secret"))
+                .setLogger(logger)
+                .build();
+    }
+    
+    /**
+     * Create an embedded webhook server with a processor from {@link #newWebhookProcessor()}.
+     * Requests are accepted at the path of the configured webhook endpoint URL. Add
+     * listeners through {@link WebhookServer#getProcessor()}, then call start().
+     * 
+     * @param port Port to listen on, or 0 for an ephemeral port
+     * @return Unstarted WebhookServer
+     * @throws IllegalStateException If no webhook configuration was set
+     */
+    public WebhookServer newWebhookServer(int port) {
+        WebhookServer.Builder builder = new WebhookServer.Builder(newWebhookProcessor())
+                .setPort(port)
+                .setLogger(logger);
+        HttpUrl endpoint = HttpUrl.parse((String) webhookConfig.get("endpoint"));
+        if (endpoint != null) {
+            builder.setPath(endpoint.encodedPath());
+        }
+        return builder.build();
     }
     
     /**
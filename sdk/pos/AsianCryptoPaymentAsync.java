@@ -0,0 +1,230 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.asiancryptopay.sdk.AsianCryptoPayment.Payment;
+import com.asiancryptopay.sdk.AsianCryptoPayment.PaymentDetails;
+import com.asiancryptopay.sdk.AsianCryptoPayment.PaymentFilters;
+
+import org.json.JSONException;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import okhttp3.Call;
+import okhttp3.ResponseBody;
+
+/**
+ * CompletableFuture-based API, parallel to the callback API of AsianCryptoPayment.
+ *
+ * Futures complete directly on the HTTP client's callback thread, without a
+ * hop to the main thread. Cancelling a future aborts the underlying request.
+ * Obtain an instance with {@link AsianCryptoPayment#async()}.
+ */
+public final class AsianCryptoPaymentAsync {
+    static final ApiTransport.ResponseParser<Payment> PAYMENT_PARSER = new ApiTransport.ResponseParser<Payment>() {
+        @Override
+        public Payment parse(@NonNull ResponseBody body) throws IOException, JSONException {
+            return PaymentJsonCodec.readPayment(body.source());
+        }
+    };
+
+    static final ApiTransport.ResponseParser<PaymentPage> PAYMENT_PAGE_PARSER = new ApiTransport.ResponseParser<PaymentPage>() {
+        @Override
+        public PaymentPage parse(@NonNull ResponseBody body) throws IOException, JSONException {
+            return PaymentJsonCodec.readPaymentPage(body.source());
+        }
+    };
+
+    private final AsianCryptoPayment sdk;
+    private final ApiTransport transport;
+
+    AsianCryptoPaymentAsync(@NonNull AsianCryptoPayment sdk, @NonNull ApiTransport transport) {
+        this.sdk = sdk;
+        this.transport = transport;
+    }
+
+    /**
+     * Create a new cryptocurrency payment
+     *
+     * @param paymentDetails Payment details
+     * @return Future for the created payment
+     */
+    @NonNull
+    public CompletableFuture<Payment> createPayment(@NonNull PaymentDetails paymentDetails) {
+        Call call;
+        try {
+            call = sdk.newCreatePaymentCall(paymentDetails);
+        } catch (IllegalArgumentException e) {
+            return failed(e);
+        }
+
+        return transport.enqueue(call, PAYMENT_PARSER);
+    }
+
+    /**
+     * Create a batch of payments. The whole batch is validated before anything is
+     * sent; payments that pass are created with up to maxConcurrency requests in
+     * flight. Failures are reported per payment and do not fail the future.
+     *
+     * @param batch Payment details
+     * @param maxConcurrency Maximum requests in flight
+     * @return Future for one result per payment, in batch order; cancelling it aborts
+     *         outstanding requests and skips payments not yet sent
+     */
+    @NonNull
+    public CompletableFuture<List<PaymentCreationResult>> createPayments(@NonNull List<PaymentDetails> batch,
+                                                                         int maxConcurrency) {
+        try {
+            return sdk.submitPayments(batch, maxConcurrency);
+        } catch (IllegalArgumentException e) {
+            return failed(e);
+        }
+    }
+
+    /**
+     * Get payment details by ID. Hedged when enabled with
+     * {@link AsianCryptoPayment.Builder#setHedging(double)}.
+     *
+     * @param paymentId Payment ID
+     * @return Future for the payment
+     */
+    @NonNull
+    public CompletableFuture<Payment> getPayment(@NonNull String paymentId) {
+        if (paymentId.isEmpty()) {
+            return failed(new IllegalArgumentException("Payment ID is required"));
+        }
+
+        return sdk.fetchPayment(paymentId);
+    }
+
+    /**
+     * Get many payments by transaction ID, in batches through the payments listing
+     * where the API supports filtering by ID, otherwise as concurrent single lookups
+     *
+     * @param transactionIds Transaction IDs
+     * @param maxConcurrency Maximum requests in flight
+     * @return Future for the payments found, keyed by transaction ID in request order;
+     *         cancelling it aborts outstanding requests
+     */
+    @NonNull
+    public CompletableFuture<Map<String, Payment>> getPayments(@NonNull Collection<String> transactionIds,
+                                                               int maxConcurrency) {
+        try {
+            return sdk.fetchPayments(transactionIds, maxConcurrency);
+        } catch (IllegalArgumentException e) {
+            return failed(e);
+        }
+    }
+
+    /**
+     * Get the exchange rate between a cryptocurrency and a fiat currency, from the
+     * exchange rate cache when it holds unexpired rates
+     *
+     * @param crypto Cryptocurrency code
+     * @param fiat Fiat currency code
+     * @return Future for the exchange rate; cancelling it does not abort a shared load
+     */
+    @NonNull
+    public CompletableFuture<ExchangeRate> getExchangeRate(@NonNull String crypto, @NonNull String fiat) {
+        return sdk.fetchExchangeRate(crypto, fiat);
+    }
+
+    /**
+     * Get a page of payments
+     *
+     * @param filters Filter parameters
+     * @return Future for the page of payments
+     */
+    @NonNull
+    public CompletableFuture<PaymentPage> getPayments(@Nullable PaymentFilters filters) {
+        String endpoint = sdk.buildPaymentsEndpoint(filters);
+        return transport.enqueue(transport.newCall(endpoint, "GET"), PAYMENT_PAGE_PARSER);
+    }
+
+    /**
+     * Get a page of payments, streaming each payment to a consumer as it is decoded
+     * instead of materializing the page. The consumer runs on the HTTP client's
+     * callback thread, in response order.
+     *
+     * @param filters Filter parameters
+     * @param consumer Receives each payment
+     * @return Future for the total number of matching payments, completed after the last payment
+     */
+    @NonNull
+    public CompletableFuture<Integer> getPayments(@Nullable PaymentFilters filters, @NonNull Consumer<Payment> consumer) {
+        String endpoint = sdk.buildPaymentsEndpoint(filters);
+        return transport.enqueue(transport.newCall(endpoint, "GET"), streamingParser(consumer));
+    }
+
+    /**
+     * Export all payments in the filters' date range, fetching day-aligned slices of
+     * the range concurrently, paced by the client-side GET /payments rate limit
+     *
+     * @param filters Filter parameters; fromDate and toDate are required, status is applied
+     * @param slices Number of slices to split the range into (capped at one per day)
+     * @return Future for the payments in date-range order; cancelling it aborts the export
+     */
+    @NonNull
+    public CompletableFuture<List<Payment>> exportPayments(@NonNull PaymentFilters filters, int slices) {
+        return exportPayments(filters, slices, slices);
+    }
+
+    /**
+     * Export all payments in the filters' date range with explicit concurrency settings
+     *
+     * @param filters Filter parameters; fromDate and toDate are required, status is applied
+     * @param slices Number of slices to split the range into (capped at one per day)
+     * @param maxConcurrency Maximum number of slices fetched at once
+     * @return Future for the payments in date-range order; cancelling it aborts the export
+     */
+    @NonNull
+    public CompletableFuture<List<Payment>> exportPayments(@NonNull PaymentFilters filters, int slices,
+                                                           int maxConcurrency) {
+        try {
+            return new PaymentHistoryExporter(sdk, transport, filters, slices, maxConcurrency).start();
+        } catch (IllegalArgumentException e) {
+            return failed(e);
+        }
+    }
+
+    /**
+     * Cancel a payment
+     *
+     * @param paymentId Payment ID
+     * @return Future for the cancelled payment
+     */
+    @NonNull
+    public CompletableFuture<Payment> cancelPayment(@NonNull String paymentId) {
+        if (paymentId.isEmpty()) {
+            return failed(new IllegalArgumentException("Payment ID is required"));
+        }
+
+        return transport.enqueue(transport.newCall("payments/" + paymentId + "/cancel", "POST"), PAYMENT_PARSER);
+    }
+
+    static ApiTransport.ResponseParser<Integer> streamingParser(@NonNull final Consumer<Payment> consumer) {
+        return new ApiTransport.ResponseParser<Integer>() {
+            @Override
+            public Integer parse(@NonNull ResponseBody body) throws IOException, JSONException {
+                return PaymentJsonCodec.streamPaymentPage(body.source(), consumer).getTotal();
+            }
+        };
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable t) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(t);
+        return future;
+    }
+}
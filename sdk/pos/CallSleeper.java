@@ -0,0 +1,49 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import okhttp3.Call;
+
+/**
+ * Waits on behalf of an in-progress call, for use by interceptors that delay
+ * a request. The wait parks the thread without holding any monitor and ends
+ * early, with an IOException, when the call is cancelled or the thread is
+ * interrupted.
+ */
+final class CallSleeper {
+    private static final long SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private CallSleeper() {
+    }
+
+    /**
+     * @param call Call being delayed
+     * @param nanos Time to wait
+     * @param reason What is being waited for, used in the interruption message
+     */
+    static void sleep(@NonNull Call call, long nanos, @NonNull String reason) throws IOException {
+        long deadline = System.nanoTime() + nanos;
+        long remaining = nanos;
+        while (remaining > 0) {
+            LockSupport.parkNanos(Math.min(remaining, SLICE_NANOS));
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for " + reason);
+            }
+            if (call.isCanceled()) {
+                throw new IOException("Canceled");
+            }
+            remaining = deadline - System.nanoTime();
+        }
+    }
+}
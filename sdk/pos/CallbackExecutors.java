@@ -0,0 +1,48 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Standard executors for {@link AsianCryptoPayment.Builder#setCallbackExecutor(Executor)}
+ */
+public final class CallbackExecutors {
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(@NonNull Runnable command) {
+            command.run();
+        }
+    };
+
+    private CallbackExecutors() {
+    }
+
+    /**
+     * Executor that runs callbacks directly on the I/O thread that completed the
+     * request. Avoids any thread handoff; callbacks must not block and must not
+     * touch views.
+     *
+     * @return Direct executor
+     */
+    @NonNull
+    public static Executor direct() {
+        return DIRECT;
+    }
+
+    /**
+     * Executor that posts callbacks to the Android main thread. This is the
+     * default for builders created with a Context.
+     *
+     * @return Main thread executor
+     */
+    @NonNull
+    public static Executor mainThread() {
+        return new MainThreadExecutor();
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.asiancryptopay.sdk.CircuitBreakerListener.State;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Per-endpoint circuit breakers.
+ *
+ * A circuit opens after failureThreshold consecutive failures (network
+ * errors, timeouts, 5xx and 408 responses). While open, requests fail at once
+ * with CircuitOpenException instead of waiting out connection and read
+ * timeouts. After openDuration one probe request is let through (half-open);
+ * its success closes the circuit, its failure reopens it. Client errors,
+ * including 429, count as successes: the API answered.
+ */
+final class CircuitBreaker implements Interceptor {
+    private final String basePath;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final CircuitBreakerListener listener;
+    private final SdkLogger logger;
+    private final Map<ApiEndpoint, Circuit> circuits = new EnumMap<>(ApiEndpoint.class);
+
+    CircuitBreaker(@NonNull HttpUrl apiRoot, int failureThreshold, long openDurationMillis,
+                   @Nullable CircuitBreakerListener listener, @NonNull SdkLogger logger) {
+        this.basePath = ApiEndpoint.basePath(apiRoot);
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+        this.listener = listener;
+        this.logger = logger;
+        for (ApiEndpoint endpoint : ApiEndpoint.values()) {
+            circuits.put(endpoint, new Circuit(endpoint));
+        }
+    }
+
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        Circuit circuit = circuits.get(ApiEndpoint.classify(request, basePath));
+        boolean probe = circuit.acquire();
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            if (isFailure(chain, e)) {
+                circuit.onFailure(probe);
+            } else {
+                circuit.onAbandoned(probe);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            circuit.onAbandoned(probe);
+            throw e;
+        }
+
+        int code = response.code();
+        if (code >= 500 || code == 408) {
+            circuit.onFailure(probe);
+        } else {
+            circuit.onSuccess(probe);
+        }
+        return response;
+    }
+
+    private static boolean isFailure(Chain chain, IOException e) {
+        if (chain.call().isCanceled() || e instanceof PaymentApiException || e instanceof CircuitOpenException) {
+            return false;
+        }
+        return !(e instanceof InterruptedIOException) || e instanceof SocketTimeoutException;
+    }
+
+    /**
+     * Breaker state for one endpoint. Transitions are made under the lock;
+     * the listener is notified after it is released.
+     */
+    private final class Circuit {
+        private final ApiEndpoint endpoint;
+        private final ReentrantLock lock = new ReentrantLock();
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openedAtNanos;
+        private boolean probeInFlight;
+
+        Circuit(ApiEndpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        /**
+         * @return Whether this request is the half-open probe
+         * @throws CircuitOpenException If the request must fail fast
+         */
+        boolean acquire() throws CircuitOpenException {
+            State previous;
+            lock.lock();
+            try {
+                if (state == State.CLOSED) {
+                    return false;
+                }
+                long elapsed = System.nanoTime() - openedAtNanos;
+                if (state == State.OPEN && elapsed < openNanos) {
+                    throw new CircuitOpenException(endpoint.label, TimeUnit.NANOSECONDS.toMillis(openNanos - elapsed));
+                }
+                if (probeInFlight) {
+                    throw new CircuitOpenException(endpoint.label, 0);
+                }
+                previous = state;
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+            } finally {
+                lock.unlock();
+            }
+            notifyChange(previous, State.HALF_OPEN);
+            return true;
+        }
+
+        void onSuccess(boolean probe) {
+            State previous;
+            lock.lock();
+            try {
+                consecutiveFailures = 0;
+                if (!probe || state != State.HALF_OPEN) {
+                    return;
+                }
+                probeInFlight = false;
+                previous = state;
+                state = State.CLOSED;
+            } finally {
+                lock.unlock();
+            }
+            notifyChange(previous, State.CLOSED);
+        }
+
+        void onFailure(boolean probe) {
+            State previous;
+            lock.lock();
+            try {
+                if (probe) {
+                    probeInFlight = false;
+                } else if (state != State.CLOSED || ++consecutiveFailures < failureThreshold) {
+                    return;
+                }
+                previous = state;
+                state = State.OPEN;
+                openedAtNanos = System.nanoTime();
+                consecutiveFailures = 0;
+            } finally {
+                lock.unlock();
+            }
+            notifyChange(previous, State.OPEN);
+        }
+
+        /**
+         * The request ended without telling anything about the endpoint's health
+         */
+        void onAbandoned(boolean probe) {
+            if (!probe) {
+                return;
+            }
+            lock.lock();
+            try {
+                probeInFlight = false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void notifyChange(State previous, State current) {
+            if (previous == current) {
+                return;
+            }
+            logger.info("Circuit for " + endpoint.label + " changed from " + previous + " to " + current);
+            if (listener != null) {
+                try {
+                    listener.onStateChange(endpoint.label, previous, current);
+                } catch (RuntimeException e) {
+                    logger.error("Circuit breaker listener failed", e);
+                }
+            }
+        }
+    }
+}
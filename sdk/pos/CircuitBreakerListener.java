@@ -0,0 +1,36 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Receives circuit breaker state changes, e.g. to offer another tender while
+ * the payment API is unavailable.
+ *
+ * Called on the thread that completed the triggering request; implementations
+ * must return quickly and must not call back into the SDK synchronously.
+ */
+public interface CircuitBreakerListener {
+    /**
+     * Circuit breaker state
+     */
+    enum State {
+        /** Requests flow normally */
+        CLOSED,
+        /** Requests fail fast with CircuitOpenException */
+        OPEN,
+        /** A single probe request is allowed to test recovery */
+        HALF_OPEN
+    }
+
+    /**
+     * @param endpoint Endpoint whose circuit changed, e.g. "POST /payments"
+     * @param previous Previous state
+     * @param current New state
+     */
+    void onStateChange(@NonNull String endpoint, @NonNull State previous, @NonNull State current);
+}
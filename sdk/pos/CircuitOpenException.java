@@ -0,0 +1,40 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+/**
+ * Thrown without contacting the API when the circuit breaker for an endpoint
+ * is open because recent requests to it have failed.
+ */
+public class CircuitOpenException extends IOException {
+    private final String endpoint;
+    private final long retryAfterMillis;
+
+    public CircuitOpenException(@NonNull String endpoint, long retryAfterMillis) {
+        super("Circuit open for " + endpoint + "; retry after " + retryAfterMillis + " ms");
+        this.endpoint = endpoint;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /**
+     * @return Endpoint whose circuit is open, e.g. "POST /payments"
+     */
+    @NonNull
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return Time until the breaker next allows a probe request, or 0 if a probe is in progress
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Opens a connection to the API host in the background so that DNS resolution,
+ * the TCP connect and the TLS handshake are already done when the first real
+ * request is made. The connection lands in the shared pool and is reused by
+ * the next call to the same host.
+ */
+final class ConnectionPrewarmer {
+    private static final Set<String> IN_FLIGHT = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private ConnectionPrewarmer() {
+    }
+
+    /**
+     * Start warming a connection to an endpoint. Returns immediately; failures
+     * are ignored because the real request will simply connect on its own.
+     *
+     * @param httpClient Client whose connection pool should be warmed
+     * @param apiEndpoint API endpoint to connect to
+     */
+    static void prewarm(@NonNull OkHttpClient httpClient, @NonNull String apiEndpoint) {
+        HttpUrl url = HttpUrl.parse(apiEndpoint);
+        if (url == null) {
+            return;
+        }
+
+        final String key = url.scheme() + "://" + url.host() + ":" + url.port();
+        if (!IN_FLIGHT.add(key)) {
+            return;
+        }
+
+        // HEAD carries no body, so the only cost beyond the handshake is one small round-trip
+        Request request = new Request.Builder()
+                .url(url)
+                .head()
+                .build();
+
+        httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                IN_FLIGHT.remove(key);
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                response.close();
+                IN_FLIGHT.remove(key);
+            }
+        });
+    }
+}
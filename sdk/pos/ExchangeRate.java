@@ -0,0 +1,64 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import java.math.BigDecimal;
+
+/**
+ * Exchange rate between a cryptocurrency and a fiat currency, as quoted by
+ * the API: the price of one unit of the cryptocurrency in the fiat currency
+ */
+public final class ExchangeRate {
+    private final String crypto;
+    private final String fiat;
+    private final BigDecimal rate;
+    private final long timestamp;
+
+    ExchangeRate(@NonNull String crypto, @NonNull String fiat, @NonNull BigDecimal rate, long timestamp) {
+        this.crypto = crypto;
+        this.fiat = fiat;
+        this.rate = rate;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * @return Cryptocurrency code, e.g. "BTC"
+     */
+    @NonNull
+    public String getCrypto() {
+        return crypto;
+    }
+
+    /**
+     * @return Fiat currency code, e.g. "SGD"
+     */
+    @NonNull
+    public String getFiat() {
+        return fiat;
+    }
+
+    /**
+     * @return Fiat price of one unit of the cryptocurrency
+     */
+    @NonNull
+    public BigDecimal getRate() {
+        return rate;
+    }
+
+    /**
+     * @return Time the API quoted the rate, in epoch milliseconds, or 0 if not reported
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return crypto + "/" + fiat + " " + rate.toPlainString();
+    }
+}
@@ -0,0 +1,228 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import okhttp3.ResponseBody;
+
+/**
+ * Exchange rates for every (crypto, fiat) pair, loaded with one
+ * GET /exchange-rates/all and kept for a fixed time to live.
+ *
+ * The rates live in an immutable snapshot behind a volatile reference, so a
+ * read is one volatile load and two hash lookups, with no locks. Once a
+ * snapshot is within refreshAhead of expiry, the next read starts a
+ * background reload and is answered from the current snapshot; the new one
+ * replaces it when it arrives. Only one load runs at a time, and a failed
+ * refresh-ahead is not retried for five seconds. Expiry is measured from
+ * when the load was sent.
+ */
+final class ExchangeRateCache {
+    static final long DEFAULT_TTL_MILLIS = TimeUnit.SECONDS.toMillis(60);
+    static final long DEFAULT_REFRESH_AHEAD_MILLIS = TimeUnit.SECONDS.toMillis(15);
+
+    private static final long FAILED_REFRESH_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private static final ApiTransport.ResponseParser<Map<String, Map<String, ExchangeRate>>> RATES_PARSER =
+            new ApiTransport.ResponseParser<Map<String, Map<String, ExchangeRate>>>() {
+                @Override
+                public Map<String, Map<String, ExchangeRate>> parse(@NonNull ResponseBody body)
+                        throws IOException, JSONException {
+                    return parseRates(new JsonStreamReader(body.source()).readObject());
+                }
+            };
+
+    private final ApiTransport transport;
+    private final SdkLogger logger;
+    private final long ttlNanos;
+    private final long refreshAheadNanos;
+    private final AtomicReference<CompletableFuture<Snapshot>> loading = new AtomicReference<>();
+    private volatile Snapshot snapshot;
+    private volatile long refreshBlockedUntilNanos = System.nanoTime();
+
+    ExchangeRateCache(@NonNull ApiTransport transport, @NonNull SdkLogger logger, long ttlMillis, long refreshAheadMillis) {
+        this.transport = transport;
+        this.logger = logger;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.refreshAheadNanos = TimeUnit.MILLISECONDS.toNanos(refreshAheadMillis);
+    }
+
+    /**
+     * Read a rate without waiting. Starts a background load if the rates are
+     * missing, expired or due for refresh.
+     *
+     * @param crypto Cryptocurrency code
+     * @param fiat Fiat currency code
+     * @return Cached rate, or null if not loaded yet, expired or not quoted by the API
+     */
+    @Nullable
+    ExchangeRate peek(@NonNull String crypto, @NonNull String fiat) {
+        Snapshot current = snapshot;
+        long now = System.nanoTime();
+        if (current == null || now - current.refreshAt >= 0) {
+            refreshAhead(now);
+        }
+        if (current == null || now - current.expiresAt >= 0) {
+            return null;
+        }
+        return current.find(crypto, fiat);
+    }
+
+    /**
+     * Get a rate, loading the rates first if they are missing or expired
+     *
+     * @param crypto Cryptocurrency code
+     * @param fiat Fiat currency code
+     * @return Future for the rate; fails with IllegalArgumentException if the API does not quote the pair
+     */
+    @NonNull
+    CompletableFuture<ExchangeRate> get(@NonNull final String crypto, @NonNull final String fiat) {
+        Snapshot current = snapshot;
+        long now = System.nanoTime();
+        if (current != null && now - current.expiresAt < 0) {
+            if (now - current.refreshAt >= 0) {
+                refreshAhead(now);
+            }
+            CompletableFuture<ExchangeRate> result = new CompletableFuture<>();
+            try {
+                result.complete(current.require(crypto, fiat));
+            } catch (IllegalArgumentException e) {
+                result.completeExceptionally(e);
+            }
+            return result;
+        }
+        // Derived future, so a caller cancelling it does not abort the shared load
+        return load().thenApply(new Function<Snapshot, ExchangeRate>() {
+            @Override
+            public ExchangeRate apply(Snapshot loaded) {
+                return loaded.require(crypto, fiat);
+            }
+        });
+    }
+
+    private void refreshAhead(long now) {
+        if (now - refreshBlockedUntilNanos >= 0) {
+            load();
+        }
+    }
+
+    /**
+     * Start a load of all rates, or join the one already running
+     */
+    private CompletableFuture<Snapshot> load() {
+        while (true) {
+            CompletableFuture<Snapshot> current = loading.get();
+            if (current != null) {
+                return current;
+            }
+            CompletableFuture<Snapshot> next = new CompletableFuture<>();
+            if (loading.compareAndSet(null, next)) {
+                fetch(next);
+                return next;
+            }
+        }
+    }
+
+    private void fetch(final CompletableFuture<Snapshot> next) {
+        final long sentAt = System.nanoTime();
+        transport.enqueue(transport.newCall("exchange-rates/all", "GET"), RATES_PARSER).whenComplete(
+                new BiConsumer<Map<String, Map<String, ExchangeRate>>, Throwable>() {
+                    @Override
+                    public void accept(Map<String, Map<String, ExchangeRate>> rates, Throwable error) {
+                        if (error != null) {
+                            Exception cause = AsianCryptoPayment.unwrap(error);
+                            refreshBlockedUntilNanos = System.nanoTime() + FAILED_REFRESH_BACKOFF_NANOS;
+                            loading.set(null);
+                            logger.warn("Failed to load exchange rates", cause);
+                            next.completeExceptionally(cause);
+                            return;
+                        }
+                        Snapshot loaded = new Snapshot(rates, sentAt + ttlNanos, sentAt + ttlNanos - refreshAheadNanos);
+                        // Publish before clearing loading, so no reader starts a redundant load in between
+                        snapshot = loaded;
+                        loading.set(null);
+                        next.complete(loaded);
+                    }
+                });
+    }
+
+    /**
+     * Decode an /exchange-rates/all response: rates by fiat, then by crypto
+     */
+    static Map<String, Map<String, ExchangeRate>> parseRates(JSONObject json) throws JSONException {
+        long timestamp = Iso8601.parseMillis(json.optString("timestamp", ""));
+        JSONObject byFiat = json.getJSONObject("rates");
+        Map<String, Map<String, ExchangeRate>> rates = new HashMap<>();
+        Iterator<String> fiats = byFiat.keys();
+        while (fiats.hasNext()) {
+            String fiatKey = fiats.next();
+            String fiat = fiatKey.toUpperCase(Locale.ROOT);
+            JSONObject byCrypto = byFiat.getJSONObject(fiatKey);
+            Map<String, ExchangeRate> fiatRates = new HashMap<>();
+            Iterator<String> cryptos = byCrypto.keys();
+            while (cryptos.hasNext()) {
+                String cryptoKey = cryptos.next();
+                String crypto = cryptoKey.toUpperCase(Locale.ROOT);
+                BigDecimal rate;
+                try {
+                    rate = new BigDecimal(String.valueOf(byCrypto.get(cryptoKey)));
+                } catch (NumberFormatException e) {
+                    throw new JSONException("Invalid exchange rate for " + crypto + "/" + fiat);
+                }
+                fiatRates.put(crypto, new ExchangeRate(crypto, fiat, rate, timestamp));
+            }
+            rates.put(fiat, Collections.unmodifiableMap(fiatRates));
+        }
+        return Collections.unmodifiableMap(rates);
+    }
+
+    /**
+     * One immutable load of all rates
+     */
+    private static final class Snapshot {
+        final Map<String, Map<String, ExchangeRate>> rates;
+        final long expiresAt;
+        final long refreshAt;
+
+        Snapshot(Map<String, Map<String, ExchangeRate>> rates, long expiresAt, long refreshAt) {
+            this.rates = rates;
+            this.expiresAt = expiresAt;
+            this.refreshAt = refreshAt;
+        }
+
+        @Nullable
+        ExchangeRate find(String crypto, String fiat) {
+            Map<String, ExchangeRate> fiatRates = rates.get(fiat.toUpperCase(Locale.ROOT));
+            return fiatRates != null ? fiatRates.get(crypto.toUpperCase(Locale.ROOT)) : null;
+        }
+
+        ExchangeRate require(String crypto, String fiat) {
+            ExchangeRate rate = find(crypto, fiat);
+            if (rate == null) {
+                throw new IllegalArgumentException("No exchange rate for " + crypto + "/" + fiat);
+            }
+            return rate;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Sink;
+import okio.Timeout;
+
+/**
+ * HMAC-SHA256 with a pool of pre-keyed Macs.
+ *
+ * The key is installed once in a template Mac; each pooled Hmac holds a
+ * clone of the template (or a freshly keyed Mac where the provider does not
+ * support cloning) together with reusable scratch, digest and hex buffers.
+ * The pool is shared by all threads rather than bound to them, so
+ * thread-per-request callers reuse the same few instances instead of keying
+ * a new Mac on every thread. Input is fed to the Mac incrementally, so
+ * neither a canonical string nor a request body is ever materialized, and
+ * the only allocation per signature is the resulting hex String.
+ *
+ * An Hmac obtained from {@link #begin()} belongs to the caller until one of
+ * its finish methods returns it to the pool; it must not be used after
+ * that. An Hmac abandoned on an exception is simply not reused.
+ */
+final class HmacEngine {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int DIGEST_LENGTH = 32;
+    private static final int SCRATCH_SIZE = 8192;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final SecretKeySpec keySpec;
+    private final Mac template;
+    private final ObjectPool<Hmac> pool = new ObjectPool<>(ObjectPool.defaultCapacity());
+
+    HmacEngine(@NonNull byte[] key) {
+        this.keySpec = new SecretKeySpec(key, ALGORITHM);
+        this.template = keyedMac();
+    }
+
+    /**
+     * @return An idle Hmac from the pool, or a new one, reset and ready for input
+     */
+    @NonNull
+    Hmac begin() {
+        Hmac hmac = pool.poll();
+        if (hmac == null) {
+            return new Hmac(pool, newMac());
+        }
+        hmac.mac.reset();
+        return hmac;
+    }
+
+    private Mac newMac() {
+        try {
+            return (Mac) template.clone();
+        } catch (CloneNotSupportedException e) {
+            return keyedMac();
+        }
+    }
+
+    private Mac keyedMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(keySpec);
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Failed to initialize " + ALGORITHM, e);
+        }
+    }
+
+    /**
+     * One pooled Mac and its buffers
+     */
+    static final class Hmac {
+        private final ObjectPool<Hmac> pool;
+        private final Mac mac;
+        private final byte[] scratch = new byte[SCRATCH_SIZE];
+        private final byte[] digest = new byte[DIGEST_LENGTH];
+        private final byte[] expected = new byte[DIGEST_LENGTH];
+        private final char[] hex = new char[DIGEST_LENGTH * 2];
+        private final MacSink sink = new MacSink();
+
+        Hmac(ObjectPool<Hmac> pool, Mac mac) {
+            this.pool = pool;
+            this.mac = mac;
+        }
+
+        /**
+         * Add a string as UTF-8. ASCII is encoded through the scratch buffer
+         * without allocating; other strings fall back to String.getBytes.
+         */
+        @NonNull
+        Hmac update(@NonNull String value) {
+            int length = value.length();
+            int start = 0;
+            while (start < length) {
+                int count = Math.min(length - start, SCRATCH_SIZE);
+                for (int i = 0; i < count; i++) {
+                    char c = value.charAt(start + i);
+                    if (c >= 0x80) {
+                        mac.update(scratch, 0, i);
+                        mac.update(value.substring(start + i).getBytes(StandardCharsets.UTF_8));
+                        return this;
+                    }
+                    scratch[i] = (byte) c;
+                }
+                mac.update(scratch, 0, count);
+                start += count;
+            }
+            return this;
+        }
+
+        @NonNull
+        Hmac update(@NonNull byte[] bytes, int offset, int length) {
+            mac.update(bytes, offset, length);
+            return this;
+        }
+
+        /**
+         * Add the remaining bytes of a buffer without moving its position
+         */
+        @NonNull
+        Hmac update(@NonNull ByteBuffer bytes) {
+            int position = bytes.position();
+            mac.update(bytes);
+            bytes.position(position);
+            return this;
+        }
+
+        /**
+         * Add a request body by writing it straight into the Mac
+         */
+        @NonNull
+        Hmac update(@NonNull RequestBody body) throws IOException {
+            BufferedSink out = Okio.buffer(sink);
+            body.writeTo(out);
+            out.flush();
+            return this;
+        }
+
+        /**
+         * Finish and return this Hmac to the pool
+         *
+         * @return Lowercase hex of the MAC
+         */
+        @NonNull
+        String finishHex() {
+            finish();
+            for (int i = 0; i < DIGEST_LENGTH; i++) {
+                int v = digest[i] & 0xFF;
+                hex[i * 2] = HEX[v >>> 4];
+                hex[i * 2 + 1] = HEX[v & 0x0F];
+            }
+            String result = new String(hex);
+            pool.offer(this);
+            return result;
+        }
+
+        /**
+         * Compare the MAC with an expected hex value in constant time, then
+         * return this Hmac to the pool
+         *
+         * @param expectedHex Hex-encoded MAC, either case
+         * @return Whether they match
+         */
+        boolean finishAndVerifyHex(@NonNull String expectedHex) {
+            finish();
+            if (expectedHex.length() != DIGEST_LENGTH * 2) {
+                pool.offer(this);
+                return false;
+            }
+            // Invalid digits yield a mismatch rather than an early exit
+            int invalid = 0;
+            for (int i = 0; i < DIGEST_LENGTH; i++) {
+                int high = Character.digit(expectedHex.charAt(i * 2), 16);
+                int low = Character.digit(expectedHex.charAt(i * 2 + 1), 16);
+                invalid |= (high | low) & 0x80000000;
+                expected[i] = (byte) ((high << 4) | (low & 0x0F));
+            }
+            boolean equal = MessageDigest.isEqual(expected, digest);
+            pool.offer(this);
+            return equal && invalid == 0;
+        }
+
+        private void finish() {
+            try {
+                mac.doFinal(digest, 0);
+            } catch (ShortBufferException e) {
+                throw new IllegalStateException("Digest buffer too small", e);
+            }
+        }
+
+        /**
+         * Sink that feeds everything written to it into the Mac
+         */
+        private final class MacSink implements Sink {
+            @Override
+            public void write(@NonNull Buffer source, long byteCount) {
+                long remaining = byteCount;
+                while (remaining > 0) {
+                    int read = source.read(scratch, 0, (int) Math.min(remaining, SCRATCH_SIZE));
+                    mac.update(scratch, 0, read);
+                    remaining -= read;
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @NonNull
+            @Override
+            public Timeout timeout() {
+                return Timeout.NONE;
+            }
+
+            @Override
+            public void close() {
+            }
+        }
+    }
+}
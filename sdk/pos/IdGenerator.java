@@ -0,0 +1,101 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unique IDs for request nonces and generated order IDs.
+ *
+ * An ID is 36 lowercase hex digits: a 48-bit millisecond timestamp, a 48-bit
+ * node ID and a 48-bit sequence number. The node ID is drawn from SecureRandom
+ * once per process, so terminals (and restarts of one terminal) use distinct
+ * ID spaces. Within a process the sequence alone makes IDs unique: each
+ * generator state claims blocks of 65536 sequence numbers from a shared
+ * counter and hands them out without further coordination. States (sequence
+ * block and output buffer) are kept in a pool shared by all threads, so
+ * short-lived threads reuse partly used blocks instead of each claiming a
+ * fresh one. The timestamp is a process-wide clock that never goes
+ * backwards, even if the wall clock does.
+ *
+ * Generating an ID takes no lock and allocates only the resulting String.
+ */
+final class IdGenerator {
+    private static final int BLOCK_BITS = 16;
+    private static final long FIELD_MASK = (1L << 48) - 1;
+    private static final int ID_LENGTH = 36;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final long NODE_ID = new SecureRandom().nextLong() & FIELD_MASK;
+    private static final AtomicLong NEXT_BLOCK = new AtomicLong();
+    private static final AtomicLong LAST_MILLIS = new AtomicLong();
+    private static final ObjectPool<State> STATES = new ObjectPool<>(ObjectPool.defaultCapacity());
+
+    private IdGenerator() {
+    }
+
+    /**
+     * @return A new unique ID
+     */
+    @NonNull
+    static String nextId() {
+        State state = STATES.poll();
+        if (state == null) {
+            state = new State();
+        }
+        char[] buffer = state.buffer;
+        writeHex(buffer, 0, currentTimeMillis());
+        writeHex(buffer, 12, NODE_ID);
+        writeHex(buffer, 24, state.nextSequence());
+        String id = new String(buffer);
+        STATES.offer(state);
+        return id;
+    }
+
+    /**
+     * @return Wall-clock time in milliseconds that never decreases within the process
+     */
+    static long currentTimeMillis() {
+        long now = System.currentTimeMillis();
+        while (true) {
+            long last = LAST_MILLIS.get();
+            if (now <= last) {
+                return last;
+            }
+            if (LAST_MILLIS.compareAndSet(last, now)) {
+                return now;
+            }
+        }
+    }
+
+    private static void writeHex(char[] buffer, int offset, long value) {
+        for (int i = 11; i >= 0; i--) {
+            buffer[offset + i] = HEX[(int) (value & 0x0F)];
+            value >>>= 4;
+        }
+    }
+
+    /**
+     * Pooled sequence block and output buffer, used by one caller at a time
+     */
+    private static final class State {
+        private final char[] buffer = new char[ID_LENGTH];
+        private long nextSequence;
+        private long blockEnd;
+
+        long nextSequence() {
+            if (nextSequence == blockEnd) {
+                long block = NEXT_BLOCK.getAndIncrement();
+                nextSequence = block << BLOCK_BITS;
+                blockEnd = nextSequence + (1L << BLOCK_BITS);
+            }
+            return nextSequence++ & FIELD_MASK;
+        }
+    }
+}
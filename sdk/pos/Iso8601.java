@@ -0,0 +1,40 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.Nullable;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Parses the UTC timestamps the API sends, e.g. "2025-03-22T16:30:00Z",
+ * with or without milliseconds
+ */
+final class Iso8601 {
+    private Iso8601() {
+    }
+
+    /**
+     * @param value Timestamp, or null
+     * @return Epoch milliseconds, or 0 if absent or unparseable
+     */
+    static long parseMillis(@Nullable String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        String pattern = value.indexOf('.') >= 0 ? "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'" : "yyyy-MM-dd'T'HH:mm:ss'Z'";
+        SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        try {
+            return format.parse(value).getTime();
+        } catch (ParseException e) {
+            return 0;
+        }
+    }
+}
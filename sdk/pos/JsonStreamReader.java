@@ -0,0 +1,493 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+import okio.BufferedSource;
+import okio.ByteString;
+
+/**
+ * Minimal pull-based JSON reader that decodes straight from an okio source,
+ * so a response is never buffered whole as a String.
+ *
+ * Values are read token by token; {@link #readObject()} and {@link #readValue()}
+ * materialize a single value as org.json types where a model's fromJson needs them.
+ */
+final class JsonStreamReader {
+    enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int NONEMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private static final ByteString QUOTE_OR_BACKSLASH = ByteString.encodeUtf8("\"\\");
+    private static final Pattern NUMBER = Pattern.compile("-?(?:0|[1-9][0-9]*)(?:\\.[0-9]+)?(?:[eE][+-]?[0-9]+)?");
+
+    private final BufferedSource source;
+    private int[] stack = new int[16];
+    private int depth = 0;
+    private Token peeked = null;
+    private int pushedBack = -1;
+
+    JsonStreamReader(@NonNull BufferedSource source) {
+        this.source = source;
+        push(EMPTY_DOCUMENT);
+    }
+
+    /**
+     * @return Type of the next token, without consuming it
+     */
+    @NonNull
+    Token peek() throws IOException {
+        if (peeked == null) {
+            peeked = doPeek();
+        }
+        return peeked;
+    }
+
+    void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+
+    void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        depth--;
+    }
+
+    void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+
+    void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        depth--;
+    }
+
+    /**
+     * @return Whether the current object or array has another element
+     */
+    boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    @NonNull
+    String nextName() throws IOException {
+        expect(Token.NAME);
+        return readQuoted();
+    }
+
+    /**
+     * Read a string value; numbers are returned as their literal text
+     */
+    @NonNull
+    String nextString() throws IOException {
+        Token token = peek();
+        if (token == Token.STRING) {
+            peeked = null;
+            return readQuoted();
+        } else if (token == Token.NUMBER) {
+            peeked = null;
+            return readLiteral();
+        }
+        throw syntaxError("Expected a string but was " + token);
+    }
+
+    boolean nextBoolean() throws IOException {
+        expect(Token.BOOLEAN);
+        String literal = readLiteral();
+        if ("true".equals(literal)) {
+            return true;
+        } else if ("false".equals(literal)) {
+            return false;
+        }
+        throw syntaxError("Unexpected literal " + literal);
+    }
+
+    void nextNull() throws IOException {
+        expect(Token.NULL);
+        String literal = readLiteral();
+        if (!"null".equals(literal)) {
+            throw syntaxError("Unexpected literal " + literal);
+        }
+    }
+
+    int nextInt() throws IOException {
+        String value = nextString();
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            double d = toDouble(value);
+            if (d != (int) d) {
+                throw syntaxError("Expected an int but was " + value);
+            }
+            return (int) d;
+        }
+    }
+
+    long nextLong() throws IOException {
+        String value = nextString();
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            double d = toDouble(value);
+            if (d != (long) d) {
+                throw syntaxError("Expected a long but was " + value);
+            }
+            return (long) d;
+        }
+    }
+
+    double nextDouble() throws IOException {
+        return toDouble(nextString());
+    }
+
+    /**
+     * Skip the next value, including all nested elements
+     */
+    void skipValue() throws IOException {
+        int count = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_OBJECT:
+                    beginObject();
+                    count++;
+                    break;
+                case BEGIN_ARRAY:
+                    beginArray();
+                    count++;
+                    break;
+                case END_OBJECT:
+                    endObject();
+                    count--;
+                    break;
+                case END_ARRAY:
+                    endArray();
+                    count--;
+                    break;
+                case NAME:
+                    nextName();
+                    break;
+                case STRING:
+                case NUMBER:
+                    nextString();
+                    break;
+                case BOOLEAN:
+                    nextBoolean();
+                    break;
+                case NULL:
+                    nextNull();
+                    break;
+                default:
+                    throw syntaxError("Unexpected end of document");
+            }
+        } while (count != 0);
+    }
+
+    /**
+     * Read the next object as a JSONObject
+     */
+    @NonNull
+    JSONObject readObject() throws IOException, JSONException {
+        JSONObject object = new JSONObject();
+        beginObject();
+        while (hasNext()) {
+            String name = nextName();
+            object.put(name, readValue());
+        }
+        endObject();
+        return object;
+    }
+
+    /**
+     * Read the next value using the same types as JSONObject parsing: JSONObject,
+     * JSONArray, String, Integer/Long/Double, Boolean or JSONObject.NULL
+     */
+    @NonNull
+    Object readValue() throws IOException, JSONException {
+        switch (peek()) {
+            case BEGIN_OBJECT:
+                return readObject();
+            case BEGIN_ARRAY:
+                JSONArray array = new JSONArray();
+                beginArray();
+                while (hasNext()) {
+                    array.put(readValue());
+                }
+                endArray();
+                return array;
+            case STRING:
+                return nextString();
+            case NUMBER:
+                return parseNumber(nextString());
+            case BOOLEAN:
+                return nextBoolean();
+            case NULL:
+                nextNull();
+                return JSONObject.NULL;
+            default:
+                throw syntaxError("Expected a value but was " + peek());
+        }
+    }
+
+    private Object parseNumber(String literal) throws IOException {
+        if (!NUMBER.matcher(literal).matches()) {
+            throw syntaxError("Invalid number " + literal);
+        }
+        if (literal.indexOf('.') == -1 && literal.indexOf('e') == -1 && literal.indexOf('E') == -1) {
+            try {
+                long longValue = Long.parseLong(literal);
+                if (longValue <= Integer.MAX_VALUE && longValue >= Integer.MIN_VALUE) {
+                    return (int) longValue;
+                }
+                return longValue;
+            } catch (NumberFormatException e) {
+                // Too large for a long; fall through to double
+            }
+        }
+        return toDouble(literal);
+    }
+
+    /**
+     * Convert a number literal, or a string holding one, reporting bad input as malformed JSON
+     */
+    private double toDouble(String value) throws IOException {
+        try {
+            double d = Double.parseDouble(value);
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                throw syntaxError("Invalid number " + value);
+            }
+            return d;
+        } catch (NumberFormatException e) {
+            throw syntaxError("Invalid number " + value);
+        }
+    }
+
+    private void expect(Token expected) throws IOException {
+        Token token = peek();
+        if (token != expected) {
+            throw syntaxError("Expected " + expected + " but was " + token);
+        }
+        peeked = null;
+    }
+
+    private Token doPeek() throws IOException {
+        int scope = stack[depth - 1];
+        if (scope == EMPTY_ARRAY) {
+            stack[depth - 1] = NONEMPTY_ARRAY;
+            int c = nextNonWhitespace();
+            if (c == ']') {
+                return Token.END_ARRAY;
+            }
+            pushedBack = c;
+        } else if (scope == NONEMPTY_ARRAY) {
+            int c = nextNonWhitespace();
+            if (c == ']') {
+                return Token.END_ARRAY;
+            } else if (c != ',') {
+                throw syntaxError("Unterminated array");
+            }
+        } else if (scope == EMPTY_OBJECT || scope == NONEMPTY_OBJECT) {
+            stack[depth - 1] = DANGLING_NAME;
+            if (scope == NONEMPTY_OBJECT) {
+                int c = nextNonWhitespace();
+                if (c == '}') {
+                    return Token.END_OBJECT;
+                } else if (c != ',') {
+                    throw syntaxError("Unterminated object");
+                }
+            }
+            int c = nextNonWhitespace();
+            if (c == '"') {
+                return Token.NAME;
+            } else if (c == '}' && scope == EMPTY_OBJECT) {
+                return Token.END_OBJECT;
+            }
+            throw syntaxError("Expected name");
+        } else if (scope == DANGLING_NAME) {
+            stack[depth - 1] = NONEMPTY_OBJECT;
+            if (nextNonWhitespace() != ':') {
+                throw syntaxError("Expected ':'");
+            }
+        } else if (scope == EMPTY_DOCUMENT) {
+            stack[depth - 1] = NONEMPTY_DOCUMENT;
+        } else if (scope == NONEMPTY_DOCUMENT) {
+            if (pushedBack != -1 && isWhitespace(pushedBack)) {
+                pushedBack = -1;
+            }
+            if (pushedBack == -1 && !skipWhitespaceToEnd()) {
+                return Token.END_DOCUMENT;
+            }
+            throw syntaxError("Multiple top-level values");
+        }
+
+        int c = nextNonWhitespace();
+        switch (c) {
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case '"':
+                return Token.STRING;
+            case 't':
+            case 'f':
+                pushedBack = c;
+                return Token.BOOLEAN;
+            case 'n':
+                pushedBack = c;
+                return Token.NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    pushedBack = c;
+                    return Token.NUMBER;
+                }
+                throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    /**
+     * @return Whether any non-whitespace content remains
+     */
+    private boolean skipWhitespaceToEnd() throws IOException {
+        while (!source.exhausted()) {
+            int c = source.readByte();
+            if (!isWhitespace(c)) {
+                pushedBack = c;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        if (pushedBack != -1) {
+            int c = pushedBack;
+            pushedBack = -1;
+            if (!isWhitespace(c)) {
+                return c;
+            }
+        }
+        while (true) {
+            int c = source.readByte();
+            if (!isWhitespace(c)) {
+                return c;
+            }
+        }
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    /**
+     * Read a string body; the opening quote has already been consumed
+     */
+    private String readQuoted() throws IOException {
+        StringBuilder builder = null;
+        while (true) {
+            long index = source.indexOfElement(QUOTE_OR_BACKSLASH);
+            if (index == -1) {
+                throw syntaxError("Unterminated string");
+            }
+            String chunk = source.readUtf8(index);
+            if (source.readByte() == '"') {
+                if (builder == null) {
+                    return chunk;
+                }
+                return builder.append(chunk).toString();
+            }
+            if (builder == null) {
+                builder = new StringBuilder();
+            }
+            builder.append(chunk).append(readEscapeCharacter());
+        }
+    }
+
+    private char readEscapeCharacter() throws IOException {
+        int c = source.readByte();
+        switch (c) {
+            case 'u':
+                String hex = source.readUtf8(4);
+                try {
+                    return (char) Integer.parseInt(hex, 16);
+                } catch (NumberFormatException e) {
+                    throw syntaxError("Invalid escape sequence \\u" + hex);
+                }
+            case 't':
+                return '\t';
+            case 'b':
+                return '\b';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
+            default:
+                throw syntaxError("Invalid escape sequence");
+        }
+    }
+
+    /**
+     * Read an unquoted literal (number, true, false, null) up to the next delimiter
+     */
+    private String readLiteral() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        while (true) {
+            int c;
+            if (pushedBack != -1) {
+                c = pushedBack;
+                pushedBack = -1;
+            } else if (source.exhausted()) {
+                break;
+            } else {
+                c = source.readByte();
+            }
+            if (c == ',' || c == '}' || c == ']' || c == ':' || isWhitespace(c)) {
+                pushedBack = c;
+                break;
+            }
+            builder.append((char) c);
+        }
+        if (builder.length() == 0) {
+            throw new EOFException("Unexpected end of JSON input");
+        }
+        return builder.toString();
+    }
+
+    private void push(int scope) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = scope;
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException("Malformed JSON: " + message);
+    }
+}
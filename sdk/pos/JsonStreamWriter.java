@@ -0,0 +1,248 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+import okio.BufferedSink;
+
+/**
+ * Minimal streaming JSON writer that encodes straight into an okio sink,
+ * without building an intermediate object tree or String.
+ */
+final class JsonStreamWriter {
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int NONEMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private static final String[] REPLACEMENT_CHARS = new String[128];
+
+    static {
+        for (int i = 0; i < 0x20; i++) {
+            REPLACEMENT_CHARS[i] = String.format("\\u%04x", i);
+        }
+        REPLACEMENT_CHARS['"'] = "\\\"";
+        REPLACEMENT_CHARS['\\'] = "\\\\";
+        REPLACEMENT_CHARS['\t'] = "\\t";
+        REPLACEMENT_CHARS['\b'] = "\\b";
+        REPLACEMENT_CHARS['\n'] = "\\n";
+        REPLACEMENT_CHARS['\r'] = "\\r";
+        REPLACEMENT_CHARS['\f'] = "\\f";
+    }
+
+    private final BufferedSink sink;
+    private int[] stack = new int[16];
+    private int depth = 0;
+
+    JsonStreamWriter(@NonNull BufferedSink sink) {
+        this.sink = sink;
+        push(EMPTY_DOCUMENT);
+    }
+
+    JsonStreamWriter beginObject() throws IOException {
+        beforeValue();
+        push(EMPTY_OBJECT);
+        sink.writeByte('{');
+        return this;
+    }
+
+    JsonStreamWriter endObject() throws IOException {
+        int scope = peek();
+        if (scope != EMPTY_OBJECT && scope != NONEMPTY_OBJECT) {
+            throw new IllegalStateException("Nesting problem");
+        }
+        depth--;
+        sink.writeByte('}');
+        return this;
+    }
+
+    JsonStreamWriter beginArray() throws IOException {
+        beforeValue();
+        push(EMPTY_ARRAY);
+        sink.writeByte('[');
+        return this;
+    }
+
+    JsonStreamWriter endArray() throws IOException {
+        int scope = peek();
+        if (scope != EMPTY_ARRAY && scope != NONEMPTY_ARRAY) {
+            throw new IllegalStateException("Nesting problem");
+        }
+        depth--;
+        sink.writeByte(']');
+        return this;
+    }
+
+    JsonStreamWriter name(@NonNull String name) throws IOException {
+        int scope = peek();
+        if (scope == NONEMPTY_OBJECT) {
+            sink.writeByte(',');
+        } else if (scope != EMPTY_OBJECT) {
+            throw new IllegalStateException("Name outside of an object");
+        }
+        writeString(name);
+        sink.writeByte(':');
+        stack[depth - 1] = DANGLING_NAME;
+        return this;
+    }
+
+    JsonStreamWriter value(@Nullable String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    JsonStreamWriter value(boolean value) throws IOException {
+        beforeValue();
+        sink.writeUtf8(value ? "true" : "false");
+        return this;
+    }
+
+    JsonStreamWriter value(long value) throws IOException {
+        beforeValue();
+        sink.writeDecimalLong(value);
+        return this;
+    }
+
+    JsonStreamWriter value(@NonNull Number value) throws IOException {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return value(value.longValue());
+        }
+        double d = value.doubleValue();
+        if (Double.isNaN(d) || Double.isInfinite(d)) {
+            throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+        }
+        beforeValue();
+        sink.writeUtf8(value.toString());
+        return this;
+    }
+
+    JsonStreamWriter nullValue() throws IOException {
+        beforeValue();
+        sink.writeUtf8("null");
+        return this;
+    }
+
+    /**
+     * Write a name/value pair, omitting it when the value is null (the same
+     * behaviour as JSONObject.put with a null value)
+     */
+    JsonStreamWriter field(@NonNull String name, @Nullable String value) throws IOException {
+        if (value != null) {
+            name(name).value(value);
+        }
+        return this;
+    }
+
+    /**
+     * Write an arbitrary value from a metadata map: strings, numbers, booleans,
+     * maps, collections and arrays are encoded structurally, anything else via toString()
+     */
+    JsonStreamWriter anyValue(@Nullable Object value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        } else if (value instanceof String) {
+            return value((String) value);
+        } else if (value instanceof Boolean) {
+            return value(((Boolean) value).booleanValue());
+        } else if (value instanceof Number) {
+            return value((Number) value);
+        } else if (value instanceof Map) {
+            beginObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                name(String.valueOf(entry.getKey()));
+                anyValue(entry.getValue());
+            }
+            return endObject();
+        } else if (value instanceof Collection) {
+            beginArray();
+            for (Object element : (Collection<?>) value) {
+                anyValue(element);
+            }
+            return endArray();
+        } else if (value instanceof Object[]) {
+            return anyValue(Arrays.asList((Object[]) value));
+        }
+        return value(value.toString());
+    }
+
+    private void beforeValue() throws IOException {
+        switch (peek()) {
+            case EMPTY_DOCUMENT:
+                stack[depth - 1] = NONEMPTY_DOCUMENT;
+                break;
+            case EMPTY_ARRAY:
+                stack[depth - 1] = NONEMPTY_ARRAY;
+                break;
+            case NONEMPTY_ARRAY:
+                sink.writeByte(',');
+                break;
+            case DANGLING_NAME:
+                stack[depth - 1] = NONEMPTY_OBJECT;
+                break;
+            default:
+                throw new IllegalStateException("Value not allowed here");
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        sink.writeByte('"');
+        int last = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            String replacement;
+            if (c < 128) {
+                replacement = REPLACEMENT_CHARS[c];
+                if (replacement == null) {
+                    continue;
+                }
+            } else if (c == '\u2028') {
+                replacement = "\\u2028";
+            } else if (c == '\u2029') {
+                replacement = "\\u2029";
+            } else {
+                continue;
+            }
+            if (last < i) {
+                sink.writeUtf8(value, last, i);
+            }
+            sink.writeUtf8(replacement);
+            last = i + 1;
+        }
+        if (last < length) {
+            sink.writeUtf8(value, last, length);
+        }
+        sink.writeByte('"');
+    }
+
+    private int peek() {
+        if (depth == 0) {
+            throw new IllegalStateException("Writer is closed");
+        }
+        return stack[depth - 1];
+    }
+
+    private void push(int scope) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = scope;
+    }
+}
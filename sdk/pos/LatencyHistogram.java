@@ -0,0 +1,70 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency distribution over a sliding window of the most recent samples.
+ *
+ * Recording is a single atomic increment and store, so it can be called from
+ * every response without contention. Percentiles are computed from a copy of
+ * the window; with a window of a few hundred samples that is cheap enough to
+ * do per request.
+ */
+final class LatencyHistogram {
+    static final int DEFAULT_WINDOW = 256;
+
+    private final AtomicLongArray samples;
+    private final AtomicLong count = new AtomicLong();
+
+    LatencyHistogram() {
+        this(DEFAULT_WINDOW);
+    }
+
+    LatencyHistogram(int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Window must be at least 1");
+        }
+        this.samples = new AtomicLongArray(window);
+    }
+
+    /**
+     * @param nanos Observed latency
+     */
+    void record(long nanos) {
+        long index = count.getAndIncrement();
+        samples.set((int) (index % samples.length()), nanos);
+    }
+
+    /**
+     * @return Number of samples currently in the window
+     */
+    int size() {
+        return (int) Math.min(count.get(), samples.length());
+    }
+
+    /**
+     * @param percentile Percentile between 0 and 1, e.g. 0.95
+     * @param minSamples Samples required for a meaningful estimate
+     * @return Latency in nanoseconds at the percentile, or -1 with fewer than minSamples samples
+     */
+    long percentile(double percentile, int minSamples) {
+        int size = size();
+        if (size == 0 || size < minSamples) {
+            return -1;
+        }
+        long[] snapshot = new long[size];
+        for (int i = 0; i < size; i++) {
+            snapshot[i] = samples.get(i);
+        }
+        Arrays.sort(snapshot);
+        int rank = (int) Math.ceil(percentile * size) - 1;
+        return snapshot[Math.max(0, Math.min(rank, size - 1))];
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Records the latency of API calls per endpoint.
+ *
+ * Installed after rate limiting and retries, so a sample is the time of one
+ * network attempt and excludes any time spent waiting for a rate-limit slot
+ * or a retry backoff. Every attempt that gets a response is recorded, error
+ * statuses included. An attempt that times out is recorded with the time it
+ * ran, which is at least the timeout it was given: otherwise, once latency
+ * rose above the adaptive timeout, no sample would ever show it and the
+ * timeout could not grow. Cancelled calls and fast failures such as refused
+ * connections are not recorded.
+ */
+final class LatencyTracker implements Interceptor {
+    private final String basePath;
+    private final Map<ApiEndpoint, LatencyHistogram> histograms = new EnumMap<>(ApiEndpoint.class);
+
+    LatencyTracker(@NonNull HttpUrl apiRoot) {
+        this.basePath = ApiEndpoint.basePath(apiRoot);
+        // Populated up front so that lookups never mutate the map
+        for (ApiEndpoint endpoint : ApiEndpoint.values()) {
+            histograms.put(endpoint, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * @param endpoint API operation
+     * @return Latency window for the operation
+     */
+    @NonNull
+    LatencyHistogram histogram(@NonNull ApiEndpoint endpoint) {
+        return histograms.get(endpoint);
+    }
+
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        LatencyHistogram histogram = histograms.get(ApiEndpoint.classify(chain.request(), basePath));
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (InterruptedIOException e) {
+            if (!chain.call().isCanceled()) {
+                histogram.record(System.nanoTime() - start);
+            }
+            throw e;
+        }
+        histogram.record(System.nanoTime() - start);
+        return response;
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Android adapter: Executor that runs tasks on the main (UI) thread
+ */
+final class MainThreadExecutor implements Executor {
+    private final Handler handler;
+
+    MainThreadExecutor(@NonNull Handler handler) {
+        this.handler = handler;
+    }
+
+    MainThreadExecutor() {
+        this(new Handler(Looper.getMainLooper()));
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        handler.post(command);
+    }
+}
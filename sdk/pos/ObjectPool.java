@@ -0,0 +1,68 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed number of slots holding reusable objects, shared by all threads.
+ *
+ * Taking and returning an object is one atomic swap per slot visited, with
+ * no lock and no allocation. Objects are not bound to the thread that used
+ * them, so short-lived threads (e.g. one virtual thread per request) reuse
+ * the same few instances. When every slot is empty poll() returns null and
+ * the caller creates a new object; when every slot is full offer() drops the
+ * object.
+ */
+final class ObjectPool<T> {
+    private final AtomicReferenceArray<T> slots;
+
+    /**
+     * @param capacity Number of idle objects kept
+     */
+    ObjectPool(int capacity) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * @return Pool size that covers every CPU running at once, with headroom
+     */
+    static int defaultCapacity() {
+        return Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+    /**
+     * @return An idle object, or null if there is none
+     */
+    @Nullable
+    T poll() {
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                T item = slots.getAndSet(i, null);
+                if (item != null) {
+                    return item;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return an object for reuse. It must not be used by the caller afterwards.
+     *
+     * @param item Object taken from poll() or newly created
+     */
+    void offer(@NonNull T item) {
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) == null && slots.compareAndSet(i, null, item)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Error returned by the payment API, carrying the HTTP status and the
+ * documented error code (e.g. invalid_request, rate_limit_exceeded).
+ */
+public class PaymentApiException extends IOException {
+    private final int httpStatus;
+    private final String code;
+    private final String details;
+
+    public PaymentApiException(int httpStatus, @NonNull String code, @NonNull String message, @Nullable String details) {
+        super(message);
+        this.httpStatus = httpStatus;
+        this.code = code;
+        this.details = details;
+    }
+
+    /**
+     * @return HTTP status code of the failed response
+     */
+    public int getHttpStatus() {
+        return httpStatus;
+    }
+
+    /**
+     * @return API error code, e.g. invalid_request
+     */
+    @NonNull
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * @return Additional error details, if provided by the API
+     */
+    @Nullable
+    public String getDetails() {
+        return details;
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import com.asiancryptopay.sdk.AsianCryptoPayment.Payment;
+import com.asiancryptopay.sdk.AsianCryptoPayment.PaymentDetails;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+
+import okhttp3.Call;
+
+/**
+ * Creates a batch of payments.
+ *
+ * The whole batch is validated up front, so payments that fail validation,
+ * or repeat an order ID already in the batch, are reported without being
+ * sent. The remaining POSTs are pipelined over up to
+ * maxConcurrency lanes: each lane sends the next payment as soon as its
+ * previous one completes, so the batch keeps that many requests in flight
+ * without occupying the rest of the dispatcher. A failed payment does not
+ * stop the batch; every payment gets its own result, in batch order.
+ */
+final class PaymentBatchCreator {
+    static final int DEFAULT_CONCURRENCY = 4;
+
+    /**
+     * Validates payment details and prepares their POST /payments call
+     */
+    interface CallFactory {
+        /**
+         * @throws IllegalArgumentException If the payment details fail validation
+         */
+        @NonNull
+        Call newCall(@NonNull PaymentDetails paymentDetails);
+    }
+
+    private final ApiTransport transport;
+    private final CallFactory calls;
+
+    PaymentBatchCreator(@NonNull ApiTransport transport, @NonNull CallFactory calls) {
+        this.transport = transport;
+        this.calls = calls;
+    }
+
+    /**
+     * Create payments
+     *
+     * @param batch Payment details, in the order results are reported
+     * @param maxConcurrency Maximum requests in flight
+     * @return Future for one result per payment, completed once every payment has been
+     *         attempted; cancelling it aborts outstanding requests and skips the rest
+     */
+    @NonNull
+    CompletableFuture<List<PaymentCreationResult>> create(@NonNull List<PaymentDetails> batch, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be at least 1");
+        }
+        List<PaymentDetails> items = new ArrayList<>(batch);
+        Call[] prepared = new Call[items.size()];
+        AtomicReferenceArray<PaymentCreationResult> results = new AtomicReferenceArray<>(items.size());
+        Set<String> orderIds = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            PaymentDetails paymentDetails = items.get(i);
+            String orderId = paymentDetails.getOrderId();
+            try {
+                if (orderId != null && !orderIds.add(orderId)) {
+                    throw new IllegalArgumentException("Duplicate order ID in batch: " + orderId);
+                }
+                prepared[i] = calls.newCall(paymentDetails);
+            } catch (IllegalArgumentException e) {
+                results.set(i, PaymentCreationResult.failed(i, paymentDetails, e));
+            }
+        }
+        return new Batch(items, prepared, results, maxConcurrency).start();
+    }
+
+    /**
+     * One batch: prepared calls claimed in order by a fixed number of lanes
+     */
+    private final class Batch {
+        private final List<PaymentDetails> items;
+        private final Call[] prepared;
+        private final AtomicReferenceArray<PaymentCreationResult> results;
+        private final int lanes;
+        private final CompletableFuture<List<PaymentCreationResult>> result = new CompletableFuture<>();
+        private final Set<Future<?>> inFlight = Collections.newSetFromMap(new ConcurrentHashMap<Future<?>, Boolean>());
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger activeLanes = new AtomicInteger();
+
+        Batch(List<PaymentDetails> items, Call[] prepared, AtomicReferenceArray<PaymentCreationResult> results,
+              int maxConcurrency) {
+            this.items = items;
+            this.prepared = prepared;
+            this.results = results;
+            this.lanes = Math.max(1, Math.min(maxConcurrency, items.size()));
+        }
+
+        CompletableFuture<List<PaymentCreationResult>> start() {
+            result.whenComplete(new BiConsumer<List<PaymentCreationResult>, Throwable>() {
+                @Override
+                public void accept(List<PaymentCreationResult> created, Throwable error) {
+                    if (error != null) {
+                        for (Future<?> future : inFlight) {
+                            future.cancel(true);
+                        }
+                    }
+                }
+            });
+            activeLanes.set(lanes);
+            for (int lane = 0; lane < lanes; lane++) {
+                sendNext();
+            }
+            return result;
+        }
+
+        /**
+         * Send the next prepared payment on this lane, or retire the lane when none are left
+         */
+        private void sendNext() {
+            int index;
+            do {
+                index = next.getAndIncrement();
+            } while (index < prepared.length && prepared[index] == null);
+            if (index >= prepared.length || result.isDone()) {
+                if (activeLanes.decrementAndGet() == 0) {
+                    complete();
+                }
+                return;
+            }
+            final int sent = index;
+            Call call = prepared[sent];
+            prepared[sent] = null;
+            final CompletableFuture<Payment> creation = transport.enqueue(call, AsianCryptoPaymentAsync.PAYMENT_PARSER);
+            inFlight.add(creation);
+            if (result.isDone()) {
+                // Raced with a cancellation that already swept inFlight
+                creation.cancel(true);
+            }
+            creation.whenComplete(new BiConsumer<Payment, Throwable>() {
+                @Override
+                public void accept(Payment payment, Throwable error) {
+                    inFlight.remove(creation);
+                    PaymentDetails paymentDetails = items.get(sent);
+                    results.set(sent, error != null
+                            ? PaymentCreationResult.failed(sent, paymentDetails, AsianCryptoPayment.unwrap(error))
+                            : PaymentCreationResult.created(sent, paymentDetails, payment));
+                    sendNext();
+                }
+            });
+        }
+
+        private void complete() {
+            PaymentCreationResult[] ordered = new PaymentCreationResult[results.length()];
+            for (int i = 0; i < ordered.length; i++) {
+                ordered[i] = results.get(i);
+            }
+            result.complete(Collections.unmodifiableList(Arrays.asList(ordered)));
+        }
+    }
+}
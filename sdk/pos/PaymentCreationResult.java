@@ -0,0 +1,78 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.asiancryptopay.sdk.AsianCryptoPayment.Payment;
+import com.asiancryptopay.sdk.AsianCryptoPayment.PaymentDetails;
+
+/**
+ * Outcome of one payment in a batch created with createPayments(): either the
+ * created payment or the reason it was not created
+ */
+public final class PaymentCreationResult {
+    private final int index;
+    private final PaymentDetails paymentDetails;
+    private final Payment payment;
+    private final Exception error;
+
+    private PaymentCreationResult(int index, PaymentDetails paymentDetails, Payment payment, Exception error) {
+        this.index = index;
+        this.paymentDetails = paymentDetails;
+        this.payment = payment;
+        this.error = error;
+    }
+
+    static PaymentCreationResult created(int index, @NonNull PaymentDetails paymentDetails, @NonNull Payment payment) {
+        return new PaymentCreationResult(index, paymentDetails, payment, null);
+    }
+
+    static PaymentCreationResult failed(int index, @NonNull PaymentDetails paymentDetails, @NonNull Exception error) {
+        return new PaymentCreationResult(index, paymentDetails, null, error);
+    }
+
+    /**
+     * @return Position of the payment details in the batch
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return Payment details as submitted
+     */
+    @NonNull
+    public PaymentDetails getPaymentDetails() {
+        return paymentDetails;
+    }
+
+    /**
+     * @return Whether the payment was created
+     */
+    public boolean isSuccess() {
+        return payment != null;
+    }
+
+    /**
+     * @return Created payment, or null if creation failed
+     */
+    @Nullable
+    public Payment getPayment() {
+        return payment;
+    }
+
+    /**
+     * @return Why the payment was not created: an IllegalArgumentException if it
+     *         failed validation and was never sent, otherwise the request error;
+     *         null on success
+     */
+    @Nullable
+    public Exception getError() {
+        return error;
+    }
+}
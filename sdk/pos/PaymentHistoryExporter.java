@@ -0,0 +1,190 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import com.asiancryptopay.sdk.AsianCryptoPayment.Payment;
+import com.asiancryptopay.sdk.AsianCryptoPayment.PaymentFilters;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Exports a date range of payment history by splitting it into contiguous
+ * slices and paging through the slices concurrently.
+ *
+ * The listing endpoint filters by calendar day (UTC), so slices are whole
+ * days and never overlap. Each slice is paged sequentially; up to
+ * maxConcurrency slices run at once. Pacing within the GET rate limit is
+ * left to the transport's RateLimitGovernor, which holds each request back
+ * until the listing budget has a slot for it. Results are merged in slice
+ * order, i.e. in date-range order, with the API's ordering preserved inside
+ * each slice.
+ */
+final class PaymentHistoryExporter {
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final AsianCryptoPayment sdk;
+    private final ApiTransport transport;
+    private final PaymentFilters filters;
+    private final int maxConcurrency;
+
+    private final List<Slice> slices;
+    private final CompletableFuture<List<Payment>> result = new CompletableFuture<>();
+    private final Set<Future<?>> inFlight = Collections.newSetFromMap(new ConcurrentHashMap<Future<?>, Boolean>());
+    private final AtomicInteger nextSlice = new AtomicInteger();
+    private final AtomicInteger remaining;
+
+    PaymentHistoryExporter(@NonNull AsianCryptoPayment sdk, @NonNull ApiTransport transport,
+                           @NonNull PaymentFilters filters, int sliceCount, int maxConcurrency) {
+        if (filters.getFromDate() == null || filters.getToDate() == null) {
+            throw new IllegalArgumentException("Export requires both fromDate and toDate");
+        }
+        if (filters.getFromDate().after(filters.getToDate())) {
+            throw new IllegalArgumentException("fromDate must not be after toDate");
+        }
+        if (sliceCount < 1) {
+            throw new IllegalArgumentException("Slice count must be at least 1");
+        }
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be at least 1");
+        }
+        this.sdk = sdk;
+        this.transport = transport;
+        this.filters = filters;
+        this.maxConcurrency = maxConcurrency;
+        this.slices = split(filters.getFromDate(), filters.getToDate(), sliceCount);
+        this.remaining = new AtomicInteger(slices.size());
+    }
+
+    /**
+     * Start the export
+     *
+     * @return Future for all payments in the range; cancelling it aborts outstanding requests
+     */
+    @NonNull
+    CompletableFuture<List<Payment>> start() {
+        result.whenComplete(new BiConsumer<List<Payment>, Throwable>() {
+            @Override
+            public void accept(List<Payment> payments, Throwable error) {
+                if (error != null) {
+                    cancelInFlight();
+                }
+            }
+        });
+        for (int i = 0; i < maxConcurrency; i++) {
+            startNextSlice();
+        }
+        return result;
+    }
+
+    /**
+     * Split [fromDate, toDate] into at most sliceCount runs of whole UTC days
+     */
+    static List<Slice> split(Date fromDate, Date toDate, int sliceCount) {
+        long firstDay = Math.floorDiv(fromDate.getTime(), DAY_MILLIS);
+        long lastDay = Math.floorDiv(toDate.getTime(), DAY_MILLIS);
+        long days = lastDay - firstDay + 1;
+        int count = (int) Math.min(sliceCount, days);
+        long base = days / count;
+        long extra = days % count;
+
+        List<Slice> slices = new ArrayList<>(count);
+        long day = firstDay;
+        for (int i = 0; i < count; i++) {
+            long length = base + (i < extra ? 1 : 0);
+            slices.add(new Slice(new Date(day * DAY_MILLIS), new Date((day + length - 1) * DAY_MILLIS)));
+            day += length;
+        }
+        return slices;
+    }
+
+    private void startNextSlice() {
+        int index = nextSlice.getAndIncrement();
+        if (index < slices.size()) {
+            fetchPage(slices.get(index), 0);
+        }
+    }
+
+    private void fetchPage(final Slice slice, final int offset) {
+        if (result.isDone()) {
+            return;
+        }
+        String endpoint = sdk.buildPaymentsEndpoint(filters, slice.fromDate, slice.toDate,
+                PaymentPager.MAX_PAGE_SIZE, offset);
+        final CompletableFuture<PaymentPage> page = transport.enqueue(transport.newCall(endpoint, "GET"),
+                AsianCryptoPaymentAsync.PAYMENT_PAGE_PARSER);
+        inFlight.add(page);
+        if (result.isDone()) {
+            // Raced with a failure or cancellation that already swept inFlight
+            page.cancel(true);
+        }
+        page.whenComplete(new BiConsumer<PaymentPage, Throwable>() {
+            @Override
+            public void accept(PaymentPage received, Throwable error) {
+                inFlight.remove(page);
+                if (error != null) {
+                    if (result.completeExceptionally(AsianCryptoPayment.unwrap(error))) {
+                        cancelInFlight();
+                    }
+                    return;
+                }
+                List<Payment> payments = received.getPayments();
+                slice.payments.addAll(payments);
+                if (received.hasMore() && !payments.isEmpty()) {
+                    fetchPage(slice, offset + payments.size());
+                } else {
+                    sliceDone();
+                }
+            }
+        });
+    }
+
+    private void sliceDone() {
+        if (remaining.decrementAndGet() > 0) {
+            startNextSlice();
+            return;
+        }
+        int size = 0;
+        for (Slice slice : slices) {
+            size += slice.payments.size();
+        }
+        List<Payment> merged = new ArrayList<>(size);
+        for (Slice slice : slices) {
+            merged.addAll(slice.payments);
+        }
+        result.complete(merged);
+    }
+
+    private void cancelInFlight() {
+        for (Future<?> future : inFlight) {
+            future.cancel(true);
+        }
+        inFlight.clear();
+    }
+
+    static final class Slice {
+        final Date fromDate;
+        final Date toDate;
+        // Written only by the one callback chain that pages this slice
+        final List<Payment> payments = new ArrayList<>();
+
+        Slice(Date fromDate, Date toDate) {
+            this.fromDate = fromDate;
+            this.toDate = toDate;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import com.asiancryptopay.sdk.AsianCryptoPayment.Payment;
+import com.asiancryptopay.sdk.AsianCryptoPayment.PaymentDetails;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.BufferedSource;
+
+/**
+ * Streaming encoder and decoder for the payment request/response path.
+ *
+ * Requests are written field by field into the request sink; responses are
+ * decoded token by token from the response source. Only a single payment
+ * object is ever materialized for Payment.fromJson, which stays the one
+ * place that maps wire fields onto the model.
+ */
+final class PaymentJsonCodec {
+    /**
+     * Receives undecoded payment objects from a listing
+     */
+    interface PaymentObjectConsumer {
+        void accept(@NonNull JSONObject payment) throws JSONException;
+    }
+
+    private PaymentJsonCodec() {
+    }
+
+    /**
+     * Create a POST /payments body that encodes the payload straight into the
+     * sink each time it is written (once for the signature, once per attempt),
+     * so the payload is never held in an intermediate buffer
+     *
+     * @param paymentDetails Validated payment details
+     * @param merchantId Merchant ID
+     * @param orderId Order ID to send
+     * @param countryCode Two-letter country code
+     * @param testMode Whether test mode is enabled
+     * @return Request body
+     */
+    @NonNull
+    static RequestBody paymentRequestBody(@NonNull final PaymentDetails paymentDetails, @NonNull final String merchantId,
+                                          @NonNull final String orderId, @NonNull final String countryCode,
+                                          final boolean testMode) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return ApiTransport.JSON;
+            }
+
+            @Override
+            public void writeTo(@NonNull BufferedSink sink) throws IOException {
+                writePaymentRequest(sink, paymentDetails, merchantId, orderId, countryCode, testMode);
+            }
+        };
+    }
+
+    /**
+     * Write the POST /payments payload
+     *
+     * @param sink Destination sink
+     * @param paymentDetails Validated payment details
+     * @param merchantId Merchant ID
+     * @param orderId Order ID to send (caller supplies the fallback when the details have none)
+     * @param countryCode Two-letter country code
+     * @param testMode Whether test mode is enabled
+     */
+    static void writePaymentRequest(@NonNull BufferedSink sink, @NonNull PaymentDetails paymentDetails,
+                                    @NonNull String merchantId, @NonNull String orderId,
+                                    @NonNull String countryCode, boolean testMode) throws IOException {
+        JsonStreamWriter writer = new JsonStreamWriter(sink);
+        writer.beginObject()
+                .field("merchant_id", merchantId)
+                .field("amount", paymentDetails.getAmount().toString())
+                .field("currency", paymentDetails.getCurrency())
+                .field("crypto_currency", paymentDetails.getCryptoCurrency())
+                .field("description", paymentDetails.getDescription())
+                .field("order_id", orderId)
+                .field("customer_email", paymentDetails.getCustomerEmail())
+                .field("customer_name", paymentDetails.getCustomerName())
+                .field("callback_url", paymentDetails.getCallbackUrl())
+                .field("success_url", paymentDetails.getSuccessUrl())
+                .field("cancel_url", paymentDetails.getCancelUrl())
+                .field("country_code", countryCode);
+        writer.name("test_mode").value(testMode);
+
+        // Add metadata if available
+        Map<String, Object> metadata = paymentDetails.getMetadata();
+        if (metadata != null) {
+            writer.name("metadata").anyValue(metadata);
+        }
+        writer.endObject();
+    }
+
+    /**
+     * Decode a single payment response
+     *
+     * @param source Response body source
+     * @return Decoded payment
+     */
+    @NonNull
+    static Payment readPayment(@NonNull BufferedSource source) throws IOException, JSONException {
+        return Payment.fromJson(readPaymentObject(source));
+    }
+
+    /**
+     * Decode a single payment object, for callers that need wire fields alongside the model
+     *
+     * @param source Source holding one payment object
+     * @return Undecoded payment object
+     */
+    @NonNull
+    static JSONObject readPaymentObject(@NonNull BufferedSource source) throws IOException, JSONException {
+        return new JsonStreamReader(source).readObject();
+    }
+
+    /**
+     * Decode a payments listing response into a page
+     *
+     * @param source Response body source
+     * @return Decoded page
+     */
+    @NonNull
+    static PaymentPage readPaymentPage(@NonNull BufferedSource source) throws IOException, JSONException {
+        final List<Payment> payments = new ArrayList<>();
+        PaymentPage envelope = streamPaymentPage(source, new Consumer<Payment>() {
+            @Override
+            public void accept(Payment payment) {
+                payments.add(payment);
+            }
+        });
+        return new PaymentPage(payments, envelope.getTotal(), envelope.getLimit(), envelope.getOffset(), envelope.hasMore());
+    }
+
+    /**
+     * Decode a payments listing response element by element. Each payment is
+     * handed to the consumer as soon as it is decoded and is not retained.
+     *
+     * @param source Response body source
+     * @param consumer Receives each payment in response order
+     * @return Pagination envelope (a page without payments)
+     */
+    @NonNull
+    static PaymentPage streamPaymentPage(@NonNull BufferedSource source, @NonNull final Consumer<Payment> consumer)
+            throws IOException, JSONException {
+        return streamPaymentObjects(source, new PaymentObjectConsumer() {
+            @Override
+            public void accept(@NonNull JSONObject payment) throws JSONException {
+                consumer.accept(Payment.fromJson(payment));
+            }
+        });
+    }
+
+    /**
+     * Decode a payments listing response into raw payment objects, for callers
+     * that need wire fields alongside the model
+     *
+     * @param source Response body source
+     * @param consumer Receives each payment object in response order
+     * @return Pagination envelope (a page without payments)
+     */
+    @NonNull
+    static PaymentPage streamPaymentObjects(@NonNull BufferedSource source, @NonNull PaymentObjectConsumer consumer)
+            throws IOException, JSONException {
+        JsonStreamReader reader = new JsonStreamReader(source);
+        int count = 0;
+        int total = -1;
+        int limit = -1;
+        int offset = 0;
+        Boolean hasMore = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("payments".equals(name)) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    consumer.accept(reader.readObject());
+                    count++;
+                }
+                reader.endArray();
+            } else if ("total".equals(name)) {
+                total = reader.nextInt();
+            } else if ("limit".equals(name)) {
+                limit = reader.nextInt();
+            } else if ("offset".equals(name)) {
+                offset = reader.nextInt();
+            } else if ("has_more".equals(name)) {
+                hasMore = reader.nextBoolean();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (total < 0) {
+            throw new JSONException("No value for total");
+        }
+        if (limit < 0) {
+            limit = count;
+        }
+        return new PaymentPage(Collections.<Payment>emptyList(), total, limit, offset,
+                hasMore != null ? hasMore : offset + count < total);
+    }
+}
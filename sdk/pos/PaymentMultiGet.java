@@ -0,0 +1,334 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import com.asiancryptopay.sdk.AsianCryptoPayment.Payment;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import okhttp3.ResponseBody;
+
+/**
+ * Looks up many payments by transaction ID.
+ *
+ * IDs are queried up to 100 at a time through the payments listing with a
+ * transaction_ids filter. If the API rejects the filter (400) or ignores it
+ * (the listing returns payments that were not asked for), this and later
+ * lookups fall back to GET /payments/{id} per ID. Up to maxConcurrency
+ * requests are in flight at once, sharing the transport's connections.
+ *
+ * Results are keyed by transaction ID in the order the IDs were given; IDs
+ * the API does not know are left out.
+ */
+final class PaymentMultiGet {
+    static final int MAX_IDS_PER_QUERY = 100;
+    static final int DEFAULT_CONCURRENCY = 8;
+
+    private static final int FILTER_UNKNOWN = 0;
+    private static final int FILTER_SUPPORTED = 1;
+    private static final int FILTER_UNSUPPORTED = 2;
+
+    private static final ApiTransport.ResponseParser<List<JSONObject>> PAYMENT_OBJECTS_PARSER =
+            new ApiTransport.ResponseParser<List<JSONObject>>() {
+                @Override
+                public List<JSONObject> parse(@NonNull ResponseBody body) throws IOException, JSONException {
+                    final List<JSONObject> payments = new ArrayList<>();
+                    PaymentJsonCodec.streamPaymentObjects(body.source(), new PaymentJsonCodec.PaymentObjectConsumer() {
+                        @Override
+                        public void accept(@NonNull JSONObject payment) {
+                            payments.add(payment);
+                        }
+                    });
+                    return payments;
+                }
+            };
+
+    private static final ApiTransport.ResponseParser<JSONObject> PAYMENT_OBJECT_PARSER =
+            new ApiTransport.ResponseParser<JSONObject>() {
+                @Override
+                public JSONObject parse(@NonNull ResponseBody body) throws IOException, JSONException {
+                    return new JsonStreamReader(body.source()).readObject();
+                }
+            };
+
+    private final ApiTransport transport;
+    private final SdkLogger logger;
+    private volatile int idFilter = FILTER_UNKNOWN;
+
+    PaymentMultiGet(@NonNull ApiTransport transport, @NonNull SdkLogger logger) {
+        this.transport = transport;
+        this.logger = logger;
+    }
+
+    /**
+     * Look up payments as raw payment objects
+     *
+     * @param transactionIds Transaction IDs; duplicates are looked up once
+     * @param maxConcurrency Maximum requests in flight
+     * @return Future for the payments found, by transaction ID; cancelling it aborts outstanding requests
+     */
+    @NonNull
+    CompletableFuture<Map<String, JSONObject>> fetchObjects(@NonNull Collection<String> transactionIds, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be at least 1");
+        }
+        Set<String> ids = new LinkedHashSet<>(transactionIds.size());
+        for (String transactionId : transactionIds) {
+            if (transactionId.isEmpty()) {
+                throw new IllegalArgumentException("Transaction ID is required");
+            }
+            ids.add(transactionId);
+        }
+        return new Lookup(ids, maxConcurrency).start();
+    }
+
+    /**
+     * Look up payments
+     *
+     * @param transactionIds Transaction IDs; duplicates are looked up once
+     * @param maxConcurrency Maximum requests in flight
+     * @return Future for the payments found, by transaction ID in request order;
+     *         cancelling it aborts outstanding requests
+     */
+    @NonNull
+    CompletableFuture<Map<String, Payment>> fetch(@NonNull Collection<String> transactionIds, int maxConcurrency) {
+        final CompletableFuture<Map<String, JSONObject>> objects = fetchObjects(transactionIds, maxConcurrency);
+        final CompletableFuture<Map<String, Payment>> payments = objects.thenApply(
+                new Function<Map<String, JSONObject>, Map<String, Payment>>() {
+                    @Override
+                    public Map<String, Payment> apply(Map<String, JSONObject> found) {
+                        Map<String, Payment> decoded = new LinkedHashMap<>(found.size());
+                        try {
+                            for (Map.Entry<String, JSONObject> entry : found.entrySet()) {
+                                decoded.put(entry.getKey(), Payment.fromJson(entry.getValue()));
+                            }
+                        } catch (JSONException e) {
+                            throw new RuntimeException("Failed to parse API response", e);
+                        }
+                        return Collections.unmodifiableMap(decoded);
+                    }
+                });
+        // A derived future does not cancel its source, so forward cancellation to the lookup
+        payments.whenComplete(new BiConsumer<Map<String, Payment>, Throwable>() {
+            @Override
+            public void accept(Map<String, Payment> result, Throwable error) {
+                if (payments.isCancelled()) {
+                    objects.cancel(true);
+                }
+            }
+        });
+        return payments;
+    }
+
+    /**
+     * One multi-get: a queue of listing queries and single lookups, drained by
+     * at most maxConcurrency requests at a time
+     */
+    private final class Lookup {
+        private final Set<String> ids;
+        private final int maxConcurrency;
+        private final CompletableFuture<Map<String, JSONObject>> result = new CompletableFuture<>();
+        private final Map<String, JSONObject> found = new ConcurrentHashMap<>();
+        private final ConcurrentLinkedQueue<List<String>> pending = new ConcurrentLinkedQueue<>();
+        private final Set<Future<?>> inFlight = Collections.newSetFromMap(new ConcurrentHashMap<Future<?>, Boolean>());
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        Lookup(Set<String> ids, int maxConcurrency) {
+            this.ids = ids;
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        CompletableFuture<Map<String, JSONObject>> start() {
+            if (ids.isEmpty()) {
+                result.complete(Collections.<String, JSONObject>emptyMap());
+                return result;
+            }
+            result.whenComplete(new BiConsumer<Map<String, JSONObject>, Throwable>() {
+                @Override
+                public void accept(Map<String, JSONObject> payments, Throwable error) {
+                    if (error != null) {
+                        for (Future<?> future : inFlight) {
+                            future.cancel(true);
+                        }
+                    }
+                }
+            });
+            List<String> all = new ArrayList<>(ids);
+            int chunkSize = idFilter == FILTER_UNSUPPORTED ? 1 : MAX_IDS_PER_QUERY;
+            for (int start = 0; start < all.size(); start += chunkSize) {
+                pending.add(all.subList(start, Math.min(start + chunkSize, all.size())));
+            }
+            outstanding.set(pending.size());
+            fill();
+            return result;
+        }
+
+        /**
+         * Start queued work until maxConcurrency requests are in flight
+         */
+        private void fill() {
+            while (!result.isDone()) {
+                int current = active.get();
+                if (current >= maxConcurrency || pending.isEmpty()) {
+                    return;
+                }
+                if (!active.compareAndSet(current, current + 1)) {
+                    continue;
+                }
+                List<String> work = pending.poll();
+                if (work == null) {
+                    active.decrementAndGet();
+                    return;
+                }
+                if (work.size() == 1) {
+                    getOne(work.get(0));
+                } else {
+                    query(work);
+                }
+            }
+        }
+
+        private void query(final List<String> chunk) {
+            String endpoint;
+            try {
+                endpoint = "payments?transaction_ids=" + URLEncoder.encode(join(chunk), "UTF-8") + "&limit=" + chunk.size();
+            } catch (UnsupportedEncodingException e) {
+                throw new RuntimeException("Failed to encode transaction IDs", e);
+            }
+            final CompletableFuture<List<JSONObject>> page = transport.enqueue(transport.newCall(endpoint, "GET"),
+                    PAYMENT_OBJECTS_PARSER);
+            track(page);
+            page.whenComplete(new BiConsumer<List<JSONObject>, Throwable>() {
+                @Override
+                public void accept(List<JSONObject> payments, Throwable error) {
+                    inFlight.remove(page);
+                    if (error != null) {
+                        Exception cause = AsianCryptoPayment.unwrap(error);
+                        if (cause instanceof PaymentApiException && ((PaymentApiException) cause).getHttpStatus() == 400
+                                && idFilter != FILTER_SUPPORTED) {
+                            fallBack(chunk, "rejects");
+                        } else {
+                            fail(cause);
+                        }
+                        return;
+                    }
+                    Set<String> asked = new HashSet<>(chunk);
+                    for (JSONObject payment : payments) {
+                        if (!asked.contains(payment.optString("transaction_id", ""))) {
+                            fallBack(chunk, "ignores");
+                            return;
+                        }
+                    }
+                    idFilter = FILTER_SUPPORTED;
+                    for (JSONObject payment : payments) {
+                        found.put(payment.optString("transaction_id"), payment);
+                    }
+                    done();
+                }
+            });
+        }
+
+        private void getOne(final String transactionId) {
+            final CompletableFuture<JSONObject> lookup = transport.enqueue(
+                    transport.newCall("payments/" + transactionId, "GET"), PAYMENT_OBJECT_PARSER);
+            track(lookup);
+            lookup.whenComplete(new BiConsumer<JSONObject, Throwable>() {
+                @Override
+                public void accept(JSONObject payment, Throwable error) {
+                    inFlight.remove(lookup);
+                    if (error != null) {
+                        Exception cause = AsianCryptoPayment.unwrap(error);
+                        if (!(cause instanceof PaymentApiException) || ((PaymentApiException) cause).getHttpStatus() != 404) {
+                            fail(cause);
+                            return;
+                        }
+                    } else {
+                        found.put(transactionId, payment);
+                    }
+                    done();
+                }
+            });
+        }
+
+        /**
+         * Replace a listing query with one lookup per ID
+         */
+        private void fallBack(List<String> chunk, String reason) {
+            if (idFilter != FILTER_UNSUPPORTED) {
+                idFilter = FILTER_UNSUPPORTED;
+                logger.info("Payments listing " + reason + " the transaction_ids filter; looking up payments individually");
+            }
+            for (String transactionId : chunk) {
+                pending.add(Collections.singletonList(transactionId));
+            }
+            outstanding.addAndGet(chunk.size());
+            done();
+        }
+
+        private void track(Future<?> future) {
+            inFlight.add(future);
+            if (result.isDone()) {
+                // Raced with a failure or cancellation that already swept inFlight
+                future.cancel(true);
+            }
+        }
+
+        private void done() {
+            active.decrementAndGet();
+            if (outstanding.decrementAndGet() > 0) {
+                fill();
+                return;
+            }
+            Map<String, JSONObject> ordered = new LinkedHashMap<>(found.size());
+            for (String transactionId : ids) {
+                JSONObject payment = found.get(transactionId);
+                if (payment != null) {
+                    ordered.put(transactionId, payment);
+                }
+            }
+            result.complete(Collections.unmodifiableMap(ordered));
+        }
+
+        private void fail(Exception error) {
+            result.completeExceptionally(error);
+        }
+    }
+
+    private static String join(List<String> ids) {
+        StringBuilder joined = new StringBuilder();
+        for (String transactionId : ids) {
+            if (joined.length() > 0) {
+                joined.append(',');
+            }
+            joined.append(transactionId);
+        }
+        return joined.toString();
+    }
+}
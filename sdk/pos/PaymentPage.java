@@ -0,0 +1,68 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import com.asiancryptopay.sdk.AsianCryptoPayment.Payment;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a payments listing together with its pagination envelope
+ */
+public final class PaymentPage {
+    private final List<Payment> payments;
+    private final int total;
+    private final int limit;
+    private final int offset;
+    private final boolean hasMore;
+
+    PaymentPage(@NonNull List<Payment> payments, int total, int limit, int offset, boolean hasMore) {
+        this.payments = Collections.unmodifiableList(payments);
+        this.total = total;
+        this.limit = limit;
+        this.offset = offset;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * @return Payments on this page
+     */
+    @NonNull
+    public List<Payment> getPayments() {
+        return payments;
+    }
+
+    /**
+     * @return Total number of payments matching the query
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return Page size requested from the API
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return Offset of the first payment on this page
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return Whether more payments follow this page
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
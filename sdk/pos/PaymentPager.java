@@ -0,0 +1,172 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.asiancryptopay.sdk.AsianCryptoPayment.Payment;
+import com.asiancryptopay.sdk.AsianCryptoPayment.PaymentFilters;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Lazily iterates over every payment matching a filter, fetching pages of the
+ * listing endpoint on demand.
+ *
+ * While page N is being consumed, up to prefetchDepth following pages are
+ * already in flight, so the caller does not wait a full round-trip at each page
+ * boundary. Prefetching is bounded by the total from the pagination envelope,
+ * and iteration ends when a page reports has_more=false.
+ *
+ * A pager is meant for a single consuming thread. Network or API failures
+ * surface from hasNext()/next() as UncheckedIOException. Close the pager to
+ * cancel outstanding prefetches when stopping early.
+ */
+public final class PaymentPager implements Iterator<Payment>, Closeable {
+    /** Maximum page size accepted by the listing endpoint */
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final AsianCryptoPayment sdk;
+    private final ApiTransport transport;
+    private final PaymentFilters filters;
+    private final int pageSize;
+    private final int prefetchDepth;
+
+    private final Deque<CompletableFuture<PaymentPage>> inFlight = new ArrayDeque<>();
+    private Iterator<Payment> current = Collections.emptyIterator();
+    private int nextOffset;
+    private int total = -1;
+    private boolean lastPageRequested = false;
+    private boolean finished = false;
+
+    PaymentPager(@NonNull AsianCryptoPayment sdk, @NonNull ApiTransport transport, @Nullable PaymentFilters filters,
+                 int pageSize, int prefetchDepth) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (prefetchDepth < 0) {
+            throw new IllegalArgumentException("Prefetch depth must not be negative");
+        }
+        this.sdk = sdk;
+        this.transport = transport;
+        this.filters = filters;
+        this.pageSize = pageSize;
+        this.prefetchDepth = prefetchDepth;
+        this.nextOffset = filters != null ? Math.max(filters.getOffset(), 0) : 0;
+    }
+
+    /**
+     * @return Total number of matching payments, or -1 before the first page has arrived
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (finished) {
+                return false;
+            }
+            advance();
+        }
+        return true;
+    }
+
+    @Override
+    public Payment next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * Cancel all prefetched pages and stop iterating
+     */
+    @Override
+    public void close() {
+        finished = true;
+        current = Collections.emptyIterator();
+        for (CompletableFuture<PaymentPage> future : inFlight) {
+            future.cancel(true);
+        }
+        inFlight.clear();
+    }
+
+    private void advance() {
+        if (inFlight.isEmpty()) {
+            fill(1);
+            if (inFlight.isEmpty()) {
+                finished = true;
+                return;
+            }
+        }
+
+        PaymentPage page = await(inFlight.poll());
+        total = page.getTotal();
+
+        if (!page.hasMore() || page.getPayments().isEmpty()) {
+            // Last page: anything prefetched beyond it would be empty
+            lastPageRequested = true;
+            for (CompletableFuture<PaymentPage> future : inFlight) {
+                future.cancel(true);
+            }
+            inFlight.clear();
+            finished = true;
+        } else {
+            // Keep the following pages in flight while this one is consumed
+            fill(prefetchDepth);
+        }
+        current = page.getPayments().iterator();
+    }
+
+    /**
+     * Request pages until the given number are in flight, never past the known total
+     */
+    private void fill(int window) {
+        while (!lastPageRequested && inFlight.size() < window) {
+            if (total >= 0 && nextOffset >= total) {
+                lastPageRequested = true;
+                break;
+            }
+            String endpoint = sdk.buildPaymentsEndpoint(filters, pageSize, nextOffset);
+            inFlight.add(transport.enqueue(transport.newCall(endpoint, "GET"),
+                    AsianCryptoPaymentAsync.PAYMENT_PAGE_PARSER));
+            nextOffset += pageSize;
+        }
+    }
+
+    private PaymentPage await(CompletableFuture<PaymentPage> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted while fetching payments"));
+        } catch (ExecutionException e) {
+            close();
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw new UncheckedIOException((IOException) cause);
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException("Failed to fetch payments page", cause);
+        }
+    }
+}
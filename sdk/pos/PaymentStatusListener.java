@@ -0,0 +1,47 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import com.asiancryptopay.sdk.AsianCryptoPayment.Payment;
+
+/**
+ * Receives payment status changes from a PaymentStatusStream or a
+ * PaymentStatusPoller.
+ *
+ * Called on the SDK's callback executor (the main thread by default on
+ * Android), in the order the updates arrived.
+ */
+public interface PaymentStatusListener {
+    /**
+     * A subscribed payment changed status
+     *
+     * @param transactionId Transaction ID
+     * @param status New status, e.g. "pending" or "completed"
+     * @param payment Payment as reported with the update
+     */
+    void onStatusUpdate(@NonNull String transactionId, @NonNull String status, @NonNull Payment payment);
+
+    /**
+     * A payment is no longer watched although it never reached a final
+     * status, e.g. because the API does not know it or it expired long ago.
+     * Other payments keep being watched.
+     *
+     * @param transactionId Transaction ID
+     * @param reason Why the payment was dropped
+     */
+    void onTrackingStopped(@NonNull String transactionId, @NonNull Exception reason);
+
+    /**
+     * Updates stopped for good, e.g. because the API rejected the
+     * subscription. Dropped connections and failed polls are retried without
+     * calling this.
+     *
+     * @param error Cause
+     */
+    void onError(@NonNull Exception error);
+}
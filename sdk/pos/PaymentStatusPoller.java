@@ -0,0 +1,442 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.asiancryptopay.sdk.AsianCryptoPayment.Payment;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Polls the status of many open payments with few requests.
+ *
+ * Every tracked payment has its own next poll time. When a poll falls due,
+ * all payments due within the next second are polled with it, in batched
+ * lookups of up to 100 payments each (one listing query filtered by
+ * transaction ID, where the API supports it), so polls are only ever moved
+ * earlier. The interval grows with the payment's age (3 s for the first
+ * two minutes, 10 s up to fifteen minutes, 30 s after) and is shortened so
+ * that a poll lands just after expires_at, when the outcome is decided. A
+ * payment is dropped once it reaches a final status, or ten minutes after
+ * it expired without one.
+ *
+ * A payment is also dropped after five consecutive polls that do not
+ * return it (the API does not know it), or after two hours without a
+ * final status whether polls succeed or not. Payments dropped without a
+ * final status are reported through onTrackingStopped.
+ *
+ * Status changes go to the listener on the SDK's callback executor. Failed
+ * queries are retried with backoff; an error that retrying cannot fix (e.g.
+ * an invalid API key) stops the poller and is reported through onError.
+ */
+public final class PaymentStatusPoller implements Closeable {
+    private static final long COALESCE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long EXPIRY_GRACE_MILLIS = TimeUnit.SECONDS.toMillis(2);
+    private static final long GIVE_UP_AFTER_EXPIRY_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final long MAX_FAILURE_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final long MAX_TRACKING_NANOS = TimeUnit.HOURS.toNanos(2);
+    private static final int MAX_MISSES = 5;
+
+    private final PaymentMultiGet multiGet;
+    private final Executor callbackExecutor;
+    private final SdkLogger logger;
+    private final PaymentStatusListener listener;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Runnable tick = new Runnable() {
+        @Override
+        public void run() {
+            tick();
+        }
+    };
+
+    // Guarded by lock
+    private final Map<String, Tracked> tracked = new HashMap<>();
+    private ScheduledFuture<?> scheduled;
+    private long scheduledForNanos;
+    private volatile boolean closed;
+
+    PaymentStatusPoller(@NonNull PaymentMultiGet multiGet, @NonNull Executor callbackExecutor, @NonNull SdkLogger logger,
+                        @NonNull PaymentStatusListener listener) {
+        this.multiGet = multiGet;
+        this.callbackExecutor = callbackExecutor;
+        this.logger = logger;
+        this.listener = listener;
+    }
+
+    /**
+     * Start polling a payment
+     *
+     * @param transactionId Transaction ID
+     */
+    public void track(@NonNull String transactionId) {
+        track(transactionId, null);
+    }
+
+    /**
+     * Start polling a payment whose expiry is known. Without it, the expiry is
+     * taken from the first poll.
+     *
+     * @param transactionId Transaction ID
+     * @param expiresAt Payment expiry, or null
+     */
+    public void track(@NonNull String transactionId, @Nullable Date expiresAt) {
+        if (!trackIfOpen(transactionId, expiresAt)) {
+            throw new IllegalStateException("Payment status poller is closed");
+        }
+    }
+
+    /**
+     * Start polling a payment unless the poller has been closed
+     *
+     * @param transactionId Transaction ID
+     * @param expiresAt Payment expiry, or null
+     * @return False if the poller is closed
+     */
+    boolean trackIfOpen(@NonNull String transactionId, @Nullable Date expiresAt) {
+        if (transactionId.isEmpty()) {
+            throw new IllegalArgumentException("Transaction ID is required");
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            if (tracked.containsKey(transactionId)) {
+                return true;
+            }
+            long now = System.nanoTime();
+            Tracked payment = new Tracked(transactionId, now, expiresAt != null ? expiresAt.getTime() : 0);
+            payment.nextDueNanos = now + intervalNanos(payment, now, System.currentTimeMillis());
+            tracked.put(transactionId, payment);
+            scheduleNextLocked(now);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop polling a payment
+     *
+     * @param transactionId Transaction ID
+     */
+    public void untrack(@NonNull String transactionId) {
+        lock.lock();
+        try {
+            tracked.remove(transactionId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Transaction IDs currently polled
+     */
+    @NonNull
+    public Set<String> getTransactionIds() {
+        lock.lock();
+        try {
+            return Collections.unmodifiableSet(new HashSet<>(tracked.keySet()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop polling. No callbacks are made afterwards.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            tracked.clear();
+            if (scheduled != null) {
+                scheduled.cancel(false);
+                scheduled = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void tick() {
+        List<Tracked> due = new ArrayList<>();
+        lock.lock();
+        try {
+            scheduled = null;
+            if (closed) {
+                return;
+            }
+            long now = System.nanoTime();
+            for (Tracked payment : tracked.values()) {
+                if (!payment.inFlight && payment.nextDueNanos - now <= COALESCE_WINDOW_NANOS) {
+                    payment.inFlight = true;
+                    due.add(payment);
+                }
+            }
+            scheduleNextLocked(now);
+        } finally {
+            lock.unlock();
+        }
+        int batchSize = PaymentMultiGet.MAX_IDS_PER_QUERY;
+        for (int start = 0; start < due.size(); start += batchSize) {
+            query(new ArrayList<>(due.subList(start, Math.min(start + batchSize, due.size()))));
+        }
+    }
+
+    private void query(final List<Tracked> batch) {
+        List<String> ids = new ArrayList<>(batch.size());
+        for (Tracked payment : batch) {
+            ids.add(payment.transactionId);
+        }
+        multiGet.fetchObjects(ids, PaymentMultiGet.DEFAULT_CONCURRENCY)
+                .whenComplete(new BiConsumer<Map<String, JSONObject>, Throwable>() {
+                    @Override
+                    public void accept(Map<String, JSONObject> payments, Throwable error) {
+                        onResult(batch, payments, error);
+                    }
+                });
+    }
+
+    private void onResult(List<Tracked> batch, @Nullable Map<String, JSONObject> payments, @Nullable Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        final List<Runnable> notifications = new ArrayList<>();
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            long now = System.nanoTime();
+            long wallNow = System.currentTimeMillis();
+            if (cause instanceof PaymentApiException && PaymentStatusStream.isPermanent((PaymentApiException) cause)) {
+                closeWithErrorLocked((PaymentApiException) cause, notifications);
+                return;
+            }
+            if (cause != null) {
+                logger.warn("Payment status poll of " + batch.size() + " payments failed", cause);
+                for (Tracked payment : batch) {
+                    payment.inFlight = false;
+                    payment.failures++;
+                    if (tracked.get(payment.transactionId) != payment) {
+                        continue;
+                    }
+                    Exception stale = staleReason(payment, now, wallNow);
+                    if (stale != null) {
+                        dropLocked(payment, stale, notifications);
+                        continue;
+                    }
+                    payment.nextDueNanos = now + failureBackoffNanos(payment, now, wallNow);
+                }
+            } else {
+                for (JSONObject json : payments.values()) {
+                    update(json, wallNow, notifications);
+                }
+                for (Tracked payment : batch) {
+                    payment.inFlight = false;
+                    payment.failures = 0;
+                    if (tracked.get(payment.transactionId) != payment) {
+                        continue;
+                    }
+                    // The lookup leaves out payments the API does not know
+                    payment.misses = payments.containsKey(payment.transactionId) ? 0 : payment.misses + 1;
+                    Exception stale = payment.misses >= MAX_MISSES
+                            ? new PaymentApiException(404, "payment_not_found", "Payment " + payment.transactionId
+                                    + " was not found in " + MAX_MISSES + " consecutive polls", null)
+                            : staleReason(payment, now, wallNow);
+                    if (stale != null) {
+                        dropLocked(payment, stale, notifications);
+                        continue;
+                    }
+                    payment.nextDueNanos = now + intervalNanos(payment, now, wallNow);
+                }
+            }
+            scheduleNextLocked(now);
+        } finally {
+            lock.unlock();
+            for (Runnable notification : notifications) {
+                callbackExecutor.execute(notification);
+            }
+        }
+    }
+
+    /**
+     * Apply one polled payment object; called with the lock held
+     */
+    private void update(JSONObject json, long wallNow, List<Runnable> notifications) {
+        final String transactionId = json.optString("transaction_id", "");
+        final Tracked payment = tracked.get(transactionId);
+        if (payment == null || !payment.inFlight) {
+            return;
+        }
+        if (payment.expiresAtMillis == 0) {
+            payment.expiresAtMillis = Iso8601.parseMillis(json.optString("expires_at", ""));
+        }
+        final String status = json.optString("status", "");
+        if (status.isEmpty() || status.equals(payment.lastStatus)) {
+            return;
+        }
+        final Payment model;
+        try {
+            model = Payment.fromJson(json);
+        } catch (JSONException e) {
+            logger.warn("Ignoring malformed payment " + transactionId + " in status poll", e);
+            return;
+        }
+        payment.lastStatus = status;
+        if (PaymentStatusStream.FINAL_STATUSES.contains(status)) {
+            tracked.remove(transactionId);
+        }
+        notifications.add(new Runnable() {
+            @Override
+            public void run() {
+                if (!closed) {
+                    listener.onStatusUpdate(transactionId, status, model);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return Why a payment is no longer worth polling, or null if it still is
+     */
+    @Nullable
+    private static Exception staleReason(Tracked payment, long now, long wallNow) {
+        if (payment.expiresAtMillis > 0 && wallNow - payment.expiresAtMillis > GIVE_UP_AFTER_EXPIRY_MILLIS) {
+            return new TimeoutException("Payment " + payment.transactionId + " expired without a final status");
+        }
+        if (now - payment.trackedAtNanos > MAX_TRACKING_NANOS) {
+            return new TimeoutException("Payment " + payment.transactionId + " reached no final status in "
+                    + TimeUnit.NANOSECONDS.toHours(MAX_TRACKING_NANOS) + " hours");
+        }
+        return null;
+    }
+
+    /**
+     * Stop polling a payment and tell the listener why; called with the lock held
+     */
+    private void dropLocked(Tracked payment, final Exception reason, List<Runnable> notifications) {
+        final String transactionId = payment.transactionId;
+        logger.warn("No longer polling payment " + transactionId, reason);
+        tracked.remove(transactionId);
+        notifications.add(new Runnable() {
+            @Override
+            public void run() {
+                if (!closed) {
+                    listener.onTrackingStopped(transactionId, reason);
+                }
+            }
+        });
+    }
+
+    private void closeWithErrorLocked(final PaymentApiException error, List<Runnable> notifications) {
+        logger.error("Payment status polling stopped", error);
+        closed = true;
+        tracked.clear();
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+        notifications.add(new Runnable() {
+            @Override
+            public void run() {
+                listener.onError(error);
+            }
+        });
+    }
+
+    /**
+     * Arrange for tick() to run when the earliest idle payment falls due
+     */
+    private void scheduleNextLocked(long now) {
+        if (closed) {
+            return;
+        }
+        boolean any = false;
+        long earliest = 0;
+        for (Tracked payment : tracked.values()) {
+            if (!payment.inFlight && (!any || payment.nextDueNanos - earliest < 0)) {
+                earliest = payment.nextDueNanos;
+                any = true;
+            }
+        }
+        if (!any) {
+            return;
+        }
+        if (scheduled != null) {
+            if (scheduledForNanos - earliest <= 0) {
+                return;
+            }
+            scheduled.cancel(false);
+        }
+        scheduled = SharedScheduler.get().schedule(tick, Math.max(earliest - now, 0), TimeUnit.NANOSECONDS);
+        scheduledForNanos = earliest;
+    }
+
+    private static long intervalNanos(Tracked payment, long now, long wallNow) {
+        long age = now - payment.trackedAtNanos;
+        long interval;
+        if (age < TimeUnit.MINUTES.toNanos(2)) {
+            interval = TimeUnit.SECONDS.toNanos(3);
+        } else if (age < TimeUnit.MINUTES.toNanos(15)) {
+            interval = TimeUnit.SECONDS.toNanos(10);
+        } else {
+            interval = TimeUnit.SECONDS.toNanos(30);
+        }
+        if (payment.expiresAtMillis > 0) {
+            long untilExpiry = payment.expiresAtMillis + EXPIRY_GRACE_MILLIS - wallNow;
+            if (untilExpiry > 0) {
+                interval = Math.min(interval, TimeUnit.MILLISECONDS.toNanos(untilExpiry));
+            }
+        }
+        return interval;
+    }
+
+    private static long failureBackoffNanos(Tracked payment, long now, long wallNow) {
+        long interval = intervalNanos(payment, now, wallNow);
+        return Math.min(interval << Math.min(payment.failures, 8), MAX_FAILURE_BACKOFF_NANOS);
+    }
+
+    /**
+     * Polling state of one payment
+     */
+    private static final class Tracked {
+        final String transactionId;
+        final long trackedAtNanos;
+        long expiresAtMillis;
+        long nextDueNanos;
+        String lastStatus = "";
+        boolean inFlight;
+        int failures;
+        int misses;
+
+        Tracked(String transactionId, long trackedAtNanos, long expiresAtMillis) {
+            this.transactionId = transactionId;
+            this.trackedAtNanos = trackedAtNanos;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,426 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import com.asiancryptopay.sdk.AsianCryptoPayment.Payment;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import okhttp3.Call;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+
+/**
+ * Push-based status updates for a set of payments over one server-sent
+ * event stream (GET /payments/stream).
+ *
+ * Each event carries a payment object; the listener is told about every
+ * change of status of a subscribed payment. A dropped connection is
+ * reopened with exponential backoff, sending Last-Event-ID so the API
+ * resumes after the last event received. Changing the subscription reopens
+ * the stream with the new set of transaction IDs.
+ *
+ * A payment that reaches a final status (completed, failed, expired,
+ * cancelled or refunded) is unsubscribed automatically; with nothing left to
+ * watch the connection is closed until the next subscribe(). The stream runs
+ * on its own thread until close() is called.
+ *
+ * The event stream endpoint is not part of every API deployment. If it
+ * answers 404 or 405, the stream hands its subscriptions to a
+ * PaymentStatusPoller and carries on by polling, with the same listener.
+ * From then on the poller owns the subscriptions: a payment it has dropped
+ * can be subscribed again, and once it stops on an error (reported through
+ * onError) further subscribe() calls are ignored, as they are after the
+ * stream itself stops.
+ */
+public final class PaymentStatusStream implements Closeable {
+    /** Longest silence, heartbeats included, before the connection is considered dead */
+    static final long IDLE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(60);
+
+    private static final long INITIAL_RECONNECT_MILLIS = 1000;
+    private static final long MAX_RECONNECT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    static final Set<String> FINAL_STATUSES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "completed", "failed", "expired", "cancelled", "refunded")));
+
+    private final ApiTransport transport;
+    private final Executor callbackExecutor;
+    private final SdkLogger logger;
+    private final PaymentStatusListener listener;
+    private final PaymentMultiGet multiGet;
+    /**
+     * Subscribed transaction IDs and the last status delivered for each ("" before the first).
+     * Not consulted once the stream has fallen back to polling.
+     */
+    private final ConcurrentMap<String, String> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final Thread thread;
+    private volatile Call currentCall;
+    private volatile boolean resubscribe;
+    /** Set once the API turned out to have no event stream */
+    private volatile PaymentStatusPoller fallback;
+
+    // Owned by the stream thread
+    private String lastEventId;
+    private long serverRetryMillis = -1;
+    private int failures;
+
+    PaymentStatusStream(@NonNull ApiTransport transport, @NonNull PaymentMultiGet multiGet,
+                        @NonNull Executor callbackExecutor, @NonNull SdkLogger logger,
+                        @NonNull Collection<String> transactionIds, @NonNull PaymentStatusListener listener) {
+        this.transport = transport;
+        this.multiGet = multiGet;
+        this.callbackExecutor = callbackExecutor;
+        this.logger = logger;
+        this.listener = listener;
+        for (String transactionId : transactionIds) {
+            subscriptions.put(requireId(transactionId), "");
+        }
+        this.thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runStream();
+            }
+        }, "AsianCryptoPayment-status-stream");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Add a payment to the stream
+     *
+     * @param transactionId Transaction ID
+     */
+    public void subscribe(@NonNull String transactionId) {
+        requireId(transactionId);
+        PaymentStatusPoller poller = fallback;
+        if (poller != null) {
+            // The poller owns the subscriptions now, including the payments it drops
+            poller.trackIfOpen(transactionId, null);
+            return;
+        }
+        if (subscriptions.putIfAbsent(transactionId, "") == null) {
+            poller = fallback;
+            if (poller != null) {
+                poller.trackIfOpen(transactionId, null);
+            } else {
+                reconnectNow();
+            }
+        }
+    }
+
+    /**
+     * Stop watching a payment
+     *
+     * @param transactionId Transaction ID
+     */
+    public void unsubscribe(@NonNull String transactionId) {
+        PaymentStatusPoller poller = fallback;
+        if (poller != null) {
+            poller.untrack(transactionId);
+            return;
+        }
+        if (subscriptions.remove(transactionId) != null) {
+            poller = fallback;
+            if (poller != null) {
+                poller.untrack(transactionId);
+            } else {
+                reconnectNow();
+            }
+        }
+    }
+
+    /**
+     * @return Transaction IDs currently watched
+     */
+    @NonNull
+    public Set<String> getTransactionIds() {
+        PaymentStatusPoller poller = fallback;
+        if (poller != null) {
+            return poller.getTransactionIds();
+        }
+        return Collections.unmodifiableSet(new HashSet<>(subscriptions.keySet()));
+    }
+
+    /**
+     * Close the connection and stop the stream. No callbacks are made afterwards.
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            cancelCurrentCall();
+            LockSupport.unpark(thread);
+            PaymentStatusPoller poller = fallback;
+            if (poller != null) {
+                poller.close();
+            }
+        }
+    }
+
+    private static String requireId(String transactionId) {
+        if (transactionId.isEmpty()) {
+            throw new IllegalArgumentException("Transaction ID is required");
+        }
+        return transactionId;
+    }
+
+    private void reconnectNow() {
+        resubscribe = true;
+        cancelCurrentCall();
+        LockSupport.unpark(thread);
+    }
+
+    private void cancelCurrentCall() {
+        Call call = currentCall;
+        if (call != null) {
+            call.cancel();
+        }
+    }
+
+    private void runStream() {
+        while (!closed.get()) {
+            resubscribe = false;
+            if (subscriptions.isEmpty()) {
+                // Nothing to watch: stay disconnected until subscribe() or close()
+                pause(Long.MAX_VALUE);
+                continue;
+            }
+            try {
+                connectAndRead();
+            } catch (PaymentApiException e) {
+                if (e.getHttpStatus() == 404 || e.getHttpStatus() == 405) {
+                    fallBackToPolling(e);
+                    return;
+                }
+                if (isPermanent(e)) {
+                    fail(e);
+                    return;
+                }
+                failures++;
+                logger.warn("Payment status stream refused, reconnecting", e);
+            } catch (IOException e) {
+                if (closed.get() || resubscribe) {
+                    continue;
+                }
+                failures++;
+                logger.warn("Payment status stream disconnected, reconnecting", e);
+            } catch (RuntimeException e) {
+                fail(e);
+                return;
+            } finally {
+                currentCall = null;
+            }
+            if (!resubscribe) {
+                pause(TimeUnit.MILLISECONDS.toNanos(reconnectDelayMillis()));
+            }
+        }
+    }
+
+    /**
+     * Carry on by polling when the API has no event stream. The stream thread ends here.
+     */
+    private void fallBackToPolling(PaymentApiException e) {
+        logger.info("Payment status stream not available (HTTP " + e.getHttpStatus() + "); polling instead");
+        PaymentStatusPoller poller = new PaymentStatusPoller(multiGet, callbackExecutor, logger, listener);
+        // Publish first: subscribe() adds to subscriptions before reading fallback, so no ID is missed
+        fallback = poller;
+        if (closed.get()) {
+            poller.close();
+            return;
+        }
+        for (String transactionId : subscriptions.keySet()) {
+            poller.trackIfOpen(transactionId, null);
+            if (!subscriptions.containsKey(transactionId)) {
+                // Raced with unsubscribe(), which may have untracked it before it was tracked
+                poller.untrack(transactionId);
+            }
+        }
+    }
+
+    private void connectAndRead() throws IOException {
+        Call call = transport.newEventStreamCall(endpoint(), lastEventId);
+        currentCall = call;
+        if (closed.get() || resubscribe) {
+            call.cancel();
+        }
+        try (Response response = call.execute()) {
+            if (!response.isSuccessful()) {
+                throw ApiTransport.toApiException(response);
+            }
+            ResponseBody body = response.body();
+            if (body == null) {
+                throw new IOException("Empty event stream");
+            }
+            failures = 0;
+            readEvents(body.source());
+        }
+    }
+
+    private String endpoint() {
+        StringBuilder ids = new StringBuilder();
+        for (String transactionId : new TreeSet<>(subscriptions.keySet())) {
+            if (ids.length() > 0) {
+                ids.append(',');
+            }
+            ids.append(transactionId);
+        }
+        try {
+            return "payments/stream?transaction_ids=" + URLEncoder.encode(ids.toString(), "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException("Failed to encode transaction IDs", e);
+        }
+    }
+
+    /**
+     * Read events until the server ends the stream or nothing is left to watch
+     */
+    private void readEvents(BufferedSource source) throws IOException {
+        Buffer data = new Buffer();
+        String eventId = null;
+        String line;
+        while ((line = source.readUtf8Line()) != null) {
+            if (line.isEmpty()) {
+                if (eventId != null) {
+                    lastEventId = eventId;
+                    eventId = null;
+                }
+                if (data.size() > 0) {
+                    dispatch(data);
+                    data.clear();
+                }
+                if (subscriptions.isEmpty()) {
+                    resubscribe = true;
+                    return;
+                }
+                continue;
+            }
+            if (line.charAt(0) == ':') {
+                // Comment, used by the server as a heartbeat
+                continue;
+            }
+            int colon = line.indexOf(':');
+            String field = colon >= 0 ? line.substring(0, colon) : line;
+            String value = colon >= 0 ? line.substring(colon + 1) : "";
+            if (value.startsWith(" ")) {
+                value = value.substring(1);
+            }
+            if ("data".equals(field)) {
+                if (data.size() > 0) {
+                    data.writeByte('\n');
+                }
+                data.writeUtf8(value);
+            } else if ("id".equals(field)) {
+                eventId = value;
+            } else if ("retry".equals(field)) {
+                Long retry = RateLimitGovernor.parseLong(value);
+                if (retry != null && retry >= 0) {
+                    serverRetryMillis = retry;
+                }
+            }
+        }
+    }
+
+    private void dispatch(Buffer data) {
+        final Payment payment;
+        final String transactionId;
+        final String status;
+        try {
+            JSONObject json = PaymentJsonCodec.readPaymentObject(data);
+            transactionId = json.optString("transaction_id", "");
+            status = json.optString("status", "");
+            if (transactionId.isEmpty() || status.isEmpty()) {
+                return;
+            }
+            String previous = subscriptions.get(transactionId);
+            if (previous == null || previous.equals(status) || !subscriptions.replace(transactionId, previous, status)) {
+                return;
+            }
+            payment = Payment.fromJson(json);
+        } catch (IOException | JSONException e) {
+            logger.warn("Ignoring malformed payment status event", e);
+            return;
+        }
+        if (FINAL_STATUSES.contains(status)) {
+            subscriptions.remove(transactionId, status);
+        }
+        callbackExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (!closed.get()) {
+                    listener.onStatusUpdate(transactionId, status, payment);
+                }
+            }
+        });
+    }
+
+    private void fail(final Exception error) {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        logger.error("Payment status stream stopped", error);
+        callbackExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                listener.onError(error);
+            }
+        });
+    }
+
+    /**
+     * Client errors other than timeouts and rate limiting will not go away by reconnecting
+     */
+    static boolean isPermanent(PaymentApiException e) {
+        int status = e.getHttpStatus();
+        return status >= 400 && status < 500 && status != 408 && status != 429;
+    }
+
+    private long reconnectDelayMillis() {
+        if (failures == 0) {
+            return serverRetryMillis >= 0 ? serverRetryMillis : INITIAL_RECONNECT_MILLIS;
+        }
+        long backoff = Math.min(INITIAL_RECONNECT_MILLIS << Math.min(failures - 1, 16), MAX_RECONNECT_MILLIS);
+        return Math.max(serverRetryMillis, (long) (backoff * (0.5 + 0.5 * ThreadLocalRandom.current().nextDouble())));
+    }
+
+    /**
+     * Wait until the delay has passed, the subscription changes or the stream is closed
+     */
+    private void pause(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        while (!closed.get() && !resubscribe) {
+            long remaining = nanos == Long.MAX_VALUE ? Long.MAX_VALUE : deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            LockSupport.parkNanos(this, remaining);
+        }
+    }
+}
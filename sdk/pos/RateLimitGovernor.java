@@ -0,0 +1,246 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import okhttp3.Call;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Client-side token buckets, one per documented rate-limit group, that pace
+ * requests so the API's per-minute limits are not exceeded.
+ *
+ * Buckets start from the documented limits and then follow the server:
+ * X-RateLimit-Limit resizes a bucket, X-RateLimit-Remaining caps the tokens
+ * available (so several terminals on one merchant account converge on the
+ * shared budget) and, once it reaches zero, requests wait until
+ * X-RateLimit-Reset. A 429 pauses the group until Retry-After or the reset.
+ *
+ * A request that would have to wait longer than maxWait fails immediately
+ * with a rate_limit_exceeded PaymentApiException instead of queueing.
+ *
+ * Asynchronous calls are admitted by ApiTransport before they are enqueued:
+ * a call that has to wait is handed to the OkHttp dispatcher only when its
+ * slot comes up, so a burst paced on one group never holds dispatcher
+ * threads or per-host slots that other groups need. Blocking calls and
+ * retry attempts, which reach this interceptor without admission, wait here
+ * instead; the wait parks the calling thread without holding any lock, and
+ * a cancelled call stops waiting promptly.
+ */
+final class RateLimitGovernor implements Interceptor {
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final long MAX_PAUSE_NANOS = TimeUnit.MINUTES.toNanos(2);
+    private static final long DEFAULT_PAUSE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String basePath;
+    private final long maxWaitNanos;
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Set<Call> admitted = Collections.newSetFromMap(new ConcurrentHashMap<Call, Boolean>());
+
+    /**
+     * @param apiRoot API base URL
+     * @param maxWaitMillis Longest time a request may be held back before it fails
+     */
+    RateLimitGovernor(@NonNull HttpUrl apiRoot, long maxWaitMillis) {
+        this.basePath = ApiEndpoint.basePath(apiRoot);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+    }
+
+    /**
+     * Reserve a slot for a call before it is enqueued, so that any wait for the
+     * slot happens before the call takes a dispatcher thread
+     *
+     * @param call Unstarted call
+     * @return Nanoseconds to wait before enqueueing the call
+     * @throws PaymentApiException If the wait would exceed maxWait
+     */
+    long admit(@NonNull Call call) throws PaymentApiException {
+        ApiEndpoint endpoint = ApiEndpoint.classify(call.request(), basePath);
+        long waitNanos = bucket(endpoint).acquire(maxWaitNanos);
+        if (waitNanos < 0) {
+            throw limitReached(endpoint);
+        }
+        admitted.add(call);
+        return waitNanos;
+    }
+
+    /**
+     * Forget an admitted call once it has completed or will not be sent. Has no
+     * effect if the call already claimed its slot in this interceptor.
+     *
+     * @param call Call passed to admit()
+     */
+    void release(@NonNull Call call) {
+        admitted.remove(call);
+    }
+
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        ApiEndpoint endpoint = ApiEndpoint.classify(request, basePath);
+        Bucket bucket = bucket(endpoint);
+
+        // An admitted call already holds its slot for the first attempt
+        if (!admitted.remove(chain.call())) {
+            long waitNanos = bucket.acquire(maxWaitNanos);
+            if (waitNanos < 0) {
+                throw limitReached(endpoint);
+            }
+            if (waitNanos > 0) {
+                CallSleeper.sleep(chain.call(), waitNanos, "rate limit");
+            }
+        }
+
+        Response response = chain.proceed(request);
+        bucket.observe(response);
+        return response;
+    }
+
+    private static PaymentApiException limitReached(ApiEndpoint endpoint) {
+        return new PaymentApiException(429, "rate_limit_exceeded",
+                "Client-side rate limit reached for " + endpoint.rateLimitGroup, null);
+    }
+
+    private Bucket bucket(ApiEndpoint endpoint) {
+        Bucket bucket = buckets.get(endpoint.rateLimitGroup);
+        if (bucket == null) {
+            Bucket created = new Bucket(endpoint.documentedLimitPerMinute);
+            bucket = buckets.putIfAbsent(endpoint.rateLimitGroup, created);
+            if (bucket == null) {
+                bucket = created;
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * Token bucket for one rate-limit group. Tokens may go negative: each
+     * acquire reserves a slot, so concurrent callers are spaced out in order.
+     */
+    static final class Bucket {
+        private final ReentrantLock lock = new ReentrantLock();
+        private double capacity;
+        private double tokens;
+        private double tokensPerNano;
+        private long lastRefillNanos;
+        private long pausedUntilNanos;
+
+        Bucket(int limitPerMinute) {
+            this.capacity = limitPerMinute;
+            this.tokens = limitPerMinute;
+            this.tokensPerNano = (double) limitPerMinute / WINDOW_NANOS;
+            this.lastRefillNanos = System.nanoTime();
+            this.pausedUntilNanos = lastRefillNanos;
+        }
+
+        /**
+         * Reserve a request slot
+         *
+         * @param maxWaitNanos Longest acceptable wait
+         * @return Nanoseconds to wait before sending, or -1 if that would exceed maxWaitNanos
+         */
+        long acquire(long maxWaitNanos) {
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                refill(now);
+                long pauseNanos = Math.max(pausedUntilNanos - now, 0);
+                long deficitNanos = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+                long waitNanos = Math.max(pauseNanos, deficitNanos);
+                if (waitNanos > maxWaitNanos) {
+                    return -1;
+                }
+                tokens -= 1;
+                return waitNanos;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Learn from a response's rate-limit headers and status
+         */
+        void observe(@NonNull Response response) {
+            Integer limit = parseInt(response.header("X-RateLimit-Limit"));
+            Integer remaining = parseInt(response.header("X-RateLimit-Remaining"));
+            Long reset = parseLong(response.header("X-RateLimit-Reset"));
+            Long retryAfter = parseLong(response.header("Retry-After"));
+
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                refill(now);
+                if (limit != null && limit > 0 && limit != capacity) {
+                    capacity = limit;
+                    tokensPerNano = (double) limit / WINDOW_NANOS;
+                    tokens = Math.min(tokens, capacity);
+                }
+                if (remaining != null) {
+                    tokens = Math.min(tokens, remaining);
+                }
+
+                long pauseNanos = 0;
+                if (response.code() == 429) {
+                    tokens = Math.min(tokens, 0);
+                    if (retryAfter != null) {
+                        pauseNanos = TimeUnit.SECONDS.toNanos(retryAfter);
+                    } else if (reset != null) {
+                        pauseNanos = untilEpochSecond(reset);
+                    } else {
+                        pauseNanos = DEFAULT_PAUSE_NANOS;
+                    }
+                } else if (remaining != null && remaining <= 0 && reset != null) {
+                    pauseNanos = untilEpochSecond(reset);
+                }
+                if (pauseNanos > 0) {
+                    pausedUntilNanos = Math.max(pausedUntilNanos, now + Math.min(pauseNanos, MAX_PAUSE_NANOS));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+            lastRefillNanos = now;
+        }
+
+        private static long untilEpochSecond(long epochSecond) {
+            return Math.max(TimeUnit.MILLISECONDS.toNanos(epochSecond * 1000 - System.currentTimeMillis()), 0);
+        }
+    }
+
+    @Nullable
+    private static Integer parseInt(@Nullable String value) {
+        Long parsed = parseLong(value);
+        return parsed != null ? (int) Math.max(Math.min(parsed, Integer.MAX_VALUE), Integer.MIN_VALUE) : null;
+    }
+
+    @Nullable
+    static Long parseLong(@Nullable String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.ref.WeakReference;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Routes each request to the fastest healthy regional API endpoint.
+ *
+ * Requests are built against the primary endpoint; this interceptor swaps in
+ * the scheme, host and port of the selected region. All regions share one
+ * API path, so the signed path is the same wherever a request goes.
+ *
+ * Regions are probed in the background with a HEAD request and ranked by a
+ * moving average of the probe round-trip time. A network error or gateway
+ * failure (502/503/504) takes a region out of rotation until a later probe
+ * succeeds, so the retry of a failed request already goes elsewhere. If every
+ * region is down, the one that failed longest ago is tried.
+ */
+final class RegionRouter implements Interceptor {
+    private static final long PROBE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long DOWN_NANOS = TimeUnit.SECONDS.toNanos(60);
+    /** Weight of the newest probe in the moving average */
+    private static final double RTT_ALPHA = 0.3;
+
+    private final List<Region> regions;
+    private final OkHttpClient probeClient;
+    private final SdkLogger logger;
+
+    /**
+     * @param endpoints Regional API base URLs, in order of preference before any probe completes
+     * @param probeClient Unsigned client used for probes
+     * @param logger Logging sink
+     */
+    RegionRouter(@NonNull List<HttpUrl> endpoints, @NonNull OkHttpClient probeClient, @NonNull SdkLogger logger) {
+        List<Region> regions = new ArrayList<>(endpoints.size());
+        for (int i = 0; i < endpoints.size(); i++) {
+            regions.add(new Region(endpoints.get(i), i));
+        }
+        this.regions = Collections.unmodifiableList(regions);
+        this.probeClient = probeClient;
+        this.logger = logger;
+    }
+
+    /**
+     * Start probing regions periodically. The schedule holds this router weakly
+     * and stops once the SDK instance that owns it is garbage collected.
+     */
+    void startProbing() {
+        final WeakReference<RegionRouter> ref = new WeakReference<>(this);
+        SharedScheduler.get().scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                RegionRouter router = ref.get();
+                if (router == null) {
+                    // Throwing cancels the periodic task
+                    throw new IllegalStateException("Region router released");
+                }
+                router.probeAll();
+            }
+        }, 0, PROBE_INTERVAL_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        Region region = select();
+        HttpUrl url = request.url().newBuilder()
+                .scheme(region.base.scheme())
+                .host(region.base.host())
+                .port(region.base.port())
+                .build();
+
+        Response response;
+        try {
+            response = chain.proceed(request.newBuilder().url(url).build());
+        } catch (IOException e) {
+            if (isRegionFailure(chain, e)) {
+                markDown(region, e.toString());
+            }
+            throw e;
+        }
+        int code = response.code();
+        if (code == 502 || code == 503 || code == 504) {
+            markDown(region, "HTTP " + code);
+        }
+        return response;
+    }
+
+    /**
+     * @return Healthy region with the lowest probe round-trip time
+     */
+    @NonNull
+    Region select() {
+        long now = System.nanoTime();
+        Region best = null;
+        Region leastRecentlyDown = null;
+        for (Region region : regions) {
+            if (region.downUntilNanos - now <= 0) {
+                if (best == null || region.rank() < best.rank()) {
+                    best = region;
+                }
+            } else if (leastRecentlyDown == null || region.downUntilNanos - leastRecentlyDown.downUntilNanos < 0) {
+                leastRecentlyDown = region;
+            }
+        }
+        return best != null ? best : leastRecentlyDown;
+    }
+
+    private void markDown(Region region, String reason) {
+        boolean wasUp = region.downUntilNanos - System.nanoTime() <= 0;
+        region.downUntilNanos = System.nanoTime() + DOWN_NANOS;
+        if (wasUp) {
+            logger.warn("Taking API region " + region.base.host() + " out of rotation: " + reason, null);
+        }
+    }
+
+    private static boolean isRegionFailure(Chain chain, IOException e) {
+        if (chain.call().isCanceled() || e instanceof PaymentApiException || e instanceof CircuitOpenException) {
+            return false;
+        }
+        return !(e instanceof InterruptedIOException) || e instanceof SocketTimeoutException;
+    }
+
+    private void probeAll() {
+        for (final Region region : regions) {
+            final long start = System.nanoTime();
+            Request request = new Request.Builder()
+                    .url(region.base)
+                    .head()
+                    .build();
+            probeClient.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                    markDown(region, e.toString());
+                }
+
+                @Override
+                public void onResponse(@NonNull Call call, @NonNull Response response) {
+                    response.close();
+                    if (response.code() >= 500) {
+                        markDown(region, "HTTP " + response.code());
+                        return;
+                    }
+                    region.recordRtt(System.nanoTime() - start);
+                    if (region.downUntilNanos - System.nanoTime() > 0) {
+                        logger.info("API region " + region.base.host() + " back in rotation");
+                    }
+                    region.downUntilNanos = System.nanoTime();
+                }
+            });
+        }
+    }
+
+    /**
+     * State of one regional endpoint. Fields are written by probes and
+     * failures and read without locking by select().
+     */
+    static final class Region {
+        final HttpUrl base;
+        private final int order;
+        private volatile long rttNanos = -1;
+        volatile long downUntilNanos = System.nanoTime();
+
+        Region(HttpUrl base, int order) {
+            this.base = base;
+            this.order = order;
+        }
+
+        void recordRtt(long nanos) {
+            long previous = rttNanos;
+            rttNanos = previous < 0 ? nanos : (long) (RTT_ALPHA * nanos + (1 - RTT_ALPHA) * previous);
+        }
+
+        /**
+         * @return Sort key: the smoothed round-trip time, or the configured order before the first probe
+         */
+        long rank() {
+            long rtt = rttNanos;
+            return rtt >= 0 ? rtt : Long.MAX_VALUE - (Integer.MAX_VALUE - order);
+        }
+    }
+}
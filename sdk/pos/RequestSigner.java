@@ -0,0 +1,52 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import okhttp3.RequestBody;
+
+/**
+ * Computes the X-Signature header: HMAC-SHA256 over method, endpoint path,
+ * timestamp, nonce and request body, hex encoded. Components are streamed
+ * into a pooled pre-keyed Mac (see HmacEngine).
+ */
+final class RequestSigner {
+    private final HmacEngine engine;
+
+    RequestSigner(@NonNull String apiKey) {
+        this.engine = new HmacEngine(apiKey.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sign a request
+     *
+     * @param method HTTP method
+     * @param path Endpoint path, e.g. /payments
+     * @param timestamp X-Timestamp value
+     * @param nonce X-Nonce value
+     * @param body Request body, or null for requests without a body
+     * @return Hex-encoded signature
+     * @throws IOException If the body cannot be written
+     */
+    @NonNull
+    String sign(@NonNull String method, @NonNull String path, @NonNull String timestamp,
+                @NonNull String nonce, @Nullable RequestBody body) throws IOException {
+        HmacEngine.Hmac hmac = engine.begin()
+                .update(method)
+                .update(path)
+                .update(timestamp)
+                .update(nonce);
+        if (body != null) {
+            hmac.update(body);
+        }
+        return hmac.finishHex();
+    }
+}
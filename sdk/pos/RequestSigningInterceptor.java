@@ -0,0 +1,57 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Adds X-Timestamp, X-Nonce and X-Signature to every request. Signing happens
+ * as the last application interceptor, so a request that is sent again gets a
+ * fresh timestamp and nonce instead of replaying the previous ones.
+ */
+final class RequestSigningInterceptor implements Interceptor {
+    private final RequestSigner signer;
+    private final String basePath;
+
+    /**
+     * @param signer Request signer
+     * @param baseUrl API base URL; its path is stripped before signing so that
+     *                the signed path is relative to the API root (e.g. /payments)
+     */
+    RequestSigningInterceptor(@NonNull RequestSigner signer, @NonNull HttpUrl baseUrl) {
+        this.signer = signer;
+        this.basePath = ApiEndpoint.basePath(baseUrl);
+    }
+
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+
+        String timestamp = Long.toString(IdGenerator.currentTimeMillis());
+        String nonce = IdGenerator.nextId();
+
+        String signature = signer.sign(request.method(), signedPath(request.url()), timestamp, nonce, request.body());
+
+        return chain.proceed(request.newBuilder()
+                .header("X-Timestamp", timestamp)
+                .header("X-Nonce", nonce)
+                .header("X-Signature", signature)
+                .build());
+    }
+
+    private String signedPath(HttpUrl url) {
+        String path = ApiEndpoint.relativePath(url, basePath);
+        String query = url.encodedQuery();
+        return query != null ? path + "?" + query : path;
+    }
+}
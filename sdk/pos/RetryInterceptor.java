@@ -0,0 +1,158 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Retries transient failures according to a RetryPolicy.
+ *
+ * Installed as the outermost policy, so every attempt passes through rate
+ * limiting again and is signed afresh. A 429 or 503 with Retry-After waits at
+ * least that long before the next attempt.
+ */
+final class RetryInterceptor implements Interceptor {
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /** Largest error body inspected for an error code */
+    private static final long MAX_ERROR_PEEK = 16 * 1024;
+    /** Budget is tracked in thousandths of a retry so that fractional ratios accumulate */
+    private static final long BUDGET_UNIT = 1000;
+
+    private final RetryPolicy policy;
+    private final String basePath;
+    private final SdkLogger logger;
+    private final AtomicLong budget;
+    private final long budgetCap;
+    private final long budgetDeposit;
+
+    RetryInterceptor(@NonNull RetryPolicy policy, @NonNull HttpUrl apiRoot, @NonNull SdkLogger logger) {
+        this.policy = policy;
+        this.basePath = ApiEndpoint.basePath(apiRoot);
+        this.logger = logger;
+        this.budgetCap = policy.getBudgetMaxRetries() * BUDGET_UNIT;
+        this.budgetDeposit = (long) (policy.getBudgetRatio() * BUDGET_UNIT);
+        this.budget = new AtomicLong(budgetCap);
+    }
+
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        boolean retrySafe = isRetrySafe(request);
+        deposit();
+
+        for (int attempt = 1; ; attempt++) {
+            boolean canRetry = retrySafe && attempt < policy.getMaxAttempts();
+            Response response;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException e) {
+                if (!canRetry || !isTransient(chain, e) || !withdraw()) {
+                    throw e;
+                }
+                logger.warn("Retrying " + request.method() + " " + request.url().encodedPath()
+                        + " after network error (attempt " + attempt + ")", e);
+                CallSleeper.sleep(chain.call(), backoffNanos(attempt, 0), "retry backoff");
+                continue;
+            }
+
+            if (response.isSuccessful() || !canRetry) {
+                return response;
+            }
+            String code = errorCode(response);
+            if (!policy.isRetryable(code) || !withdraw()) {
+                return response;
+            }
+            long retryAfterNanos = retryAfterNanos(response);
+            response.close();
+            logger.warn("Retrying " + request.method() + " " + request.url().encodedPath()
+                    + " after " + code + " (attempt " + attempt + ")", null);
+            CallSleeper.sleep(chain.call(), backoffNanos(attempt, retryAfterNanos), "retry backoff");
+        }
+    }
+
+    /**
+     * Reads are always safe to repeat; cancellation is idempotent on the server;
+     * anything else needs an idempotency key
+     */
+    private boolean isRetrySafe(Request request) {
+        String method = request.method();
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            return true;
+        }
+        if (ApiEndpoint.classify(request, basePath) == ApiEndpoint.PAYMENT_CANCEL) {
+            return true;
+        }
+        return request.header(IDEMPOTENCY_KEY_HEADER) != null;
+    }
+
+    /**
+     * Network failures and timeouts are transient; client-side rejections
+     * (PaymentApiException raised before sending, an open circuit),
+     * cancellation and interruption are not
+     */
+    private static boolean isTransient(Chain chain, IOException e) {
+        if (chain.call().isCanceled() || e instanceof PaymentApiException || e instanceof CircuitOpenException) {
+            return false;
+        }
+        return !(e instanceof InterruptedIOException) || e instanceof SocketTimeoutException;
+    }
+
+    private static String errorCode(Response response) {
+        String body = null;
+        try {
+            body = response.peekBody(MAX_ERROR_PEEK).string();
+        } catch (IOException e) {
+            // Classify by status alone
+        }
+        return ApiTransport.toApiException(response.code(), response.message(), body).getCode();
+    }
+
+    private static long retryAfterNanos(Response response) {
+        Long seconds = RateLimitGovernor.parseLong(response.header("Retry-After"));
+        return seconds != null && seconds > 0 ? TimeUnit.SECONDS.toNanos(seconds) : 0;
+    }
+
+    private long backoffNanos(int retry, long minimumNanos) {
+        long backoff = TimeUnit.MILLISECONDS.toNanos(policy.backoffMillis(retry));
+        long jittered = (long) (backoff * (1.0 - policy.getJitter() * ThreadLocalRandom.current().nextDouble()));
+        return Math.max(jittered, minimumNanos);
+    }
+
+    private void deposit() {
+        while (true) {
+            long current = budget.get();
+            long next = Math.min(current + budgetDeposit, budgetCap);
+            if (next == current || budget.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    private boolean withdraw() {
+        while (true) {
+            long current = budget.get();
+            if (current < BUDGET_UNIT) {
+                return false;
+            }
+            if (budget.compareAndSet(current, current - BUDGET_UNIT)) {
+                return true;
+            }
+        }
+    }
+}
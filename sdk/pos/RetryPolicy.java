@@ -0,0 +1,239 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retry settings for API requests.
+ *
+ * Failed attempts are retried with exponential backoff and jitter when the
+ * failure is transient: a network error or timeout, or an API error whose
+ * code is in the retryable set. Error responses without the documented error
+ * envelope are classified by their http_&lt;status&gt; code. Only requests that
+ * are safe to repeat are retried: reads, payment cancellation and payment
+ * creation, which carries an idempotency key.
+ *
+ * Retries also draw on a budget shared by all requests of an SDK instance,
+ * so that an outage does not multiply traffic: each request earns a fraction
+ * of a retry, up to a cap, and each retry spends one.
+ */
+public final class RetryPolicy {
+    private static final Set<String> DEFAULT_RETRYABLE_CODES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "rate_limit_exceeded", "internal_error",
+            "http_408", "http_429", "http_500", "http_502", "http_503", "http_504")));
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final double multiplier;
+    private final double jitter;
+    private final double budgetRatio;
+    private final int budgetMaxRetries;
+    private final Set<String> retryableCodes;
+
+    private RetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoffMillis = builder.initialBackoffMillis;
+        this.maxBackoffMillis = builder.maxBackoffMillis;
+        this.multiplier = builder.multiplier;
+        this.jitter = builder.jitter;
+        this.budgetRatio = builder.budgetRatio;
+        this.budgetMaxRetries = builder.budgetMaxRetries;
+        this.retryableCodes = Collections.unmodifiableSet(new HashSet<>(builder.retryableCodes));
+    }
+
+    /**
+     * Default retry settings: up to 3 attempts, backoff from 200 ms doubling to at
+     * most 5 s with 50% jitter, and a budget of 10% retries over a reserve of 10
+     *
+     * @return Default RetryPolicy
+     */
+    @NonNull
+    public static RetryPolicy defaults() {
+        return new Builder().build();
+    }
+
+    /**
+     * @return RetryPolicy that never retries
+     */
+    @NonNull
+    public static RetryPolicy none() {
+        return new Builder().setMaxAttempts(1).build();
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getInitialBackoffMillis() {
+        return initialBackoffMillis;
+    }
+
+    public long getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    public double getJitter() {
+        return jitter;
+    }
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    public int getBudgetMaxRetries() {
+        return budgetMaxRetries;
+    }
+
+    /**
+     * @return API error codes that are retried
+     */
+    @NonNull
+    public Set<String> getRetryableCodes() {
+        return retryableCodes;
+    }
+
+    /**
+     * @param code API error code
+     * @return Whether an error with this code is retried
+     */
+    public boolean isRetryable(@NonNull String code) {
+        return retryableCodes.contains(code);
+    }
+
+    /**
+     * Backoff before the given retry, without jitter
+     *
+     * @param retry Retry number, starting at 1
+     * @return Backoff in milliseconds
+     */
+    long backoffMillis(int retry) {
+        double backoff = initialBackoffMillis * Math.pow(multiplier, retry - 1);
+        return (long) Math.min(backoff, maxBackoffMillis);
+    }
+
+    /**
+     * Builder class for RetryPolicy
+     */
+    public static final class Builder {
+        private int maxAttempts = 3;
+        private long initialBackoffMillis = 200;
+        private long maxBackoffMillis = TimeUnit.SECONDS.toMillis(5);
+        private double multiplier = 2.0;
+        private double jitter = 0.5;
+        private double budgetRatio = 0.1;
+        private int budgetMaxRetries = 10;
+        private final Set<String> retryableCodes = new HashSet<>(DEFAULT_RETRYABLE_CODES);
+
+        /**
+         * Set the maximum number of attempts per request, including the first
+         *
+         * @param maxAttempts Maximum attempts (1 disables retries)
+         * @return Builder instance
+         */
+        public Builder setMaxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("maxAttempts must be at least 1");
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Set exponential backoff parameters
+         *
+         * @param initialBackoff Backoff before the first retry
+         * @param maxBackoff Upper bound for any backoff
+         * @param unit Time unit of initialBackoff and maxBackoff
+         * @param multiplier Factor applied to the backoff after each retry
+         * @return Builder instance
+         */
+        public Builder setBackoff(long initialBackoff, long maxBackoff, @NonNull TimeUnit unit, double multiplier) {
+            if (initialBackoff < 0 || maxBackoff < initialBackoff) {
+                throw new IllegalArgumentException("Backoff must satisfy 0 <= initialBackoff <= maxBackoff");
+            }
+            if (multiplier < 1.0) {
+                throw new IllegalArgumentException("multiplier must be at least 1.0");
+            }
+            this.initialBackoffMillis = unit.toMillis(initialBackoff);
+            this.maxBackoffMillis = unit.toMillis(maxBackoff);
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        /**
+         * Set jitter: each backoff is reduced by a random fraction of up to this value
+         *
+         * @param jitter Jitter fraction between 0 (none) and 1 (full jitter)
+         * @return Builder instance
+         */
+        public Builder setJitter(double jitter) {
+            if (jitter < 0.0 || jitter > 1.0) {
+                throw new IllegalArgumentException("jitter must be between 0 and 1");
+            }
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Set the retry budget
+         *
+         * @param ratio Retries earned per request, e.g. 0.1 allows retries for 10% of traffic
+         * @param maxRetries Maximum number of retries that can be saved up; also the initial reserve
+         * @return Builder instance
+         */
+        public Builder setRetryBudget(double ratio, int maxRetries) {
+            if (ratio < 0.0 || maxRetries < 0) {
+                throw new IllegalArgumentException("Retry budget must not be negative");
+            }
+            this.budgetRatio = ratio;
+            this.budgetMaxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * Retry errors with the given API error code, e.g. http_409
+         *
+         * @param code API error code
+         * @return Builder instance
+         */
+        public Builder addRetryableCode(@NonNull String code) {
+            this.retryableCodes.add(code);
+            return this;
+        }
+
+        /**
+         * Do not retry errors with the given API error code
+         *
+         * @param code API error code
+         * @return Builder instance
+         */
+        public Builder removeRetryableCode(@NonNull String code) {
+            this.retryableCodes.remove(code);
+            return this;
+        }
+
+        /**
+         * Build RetryPolicy instance
+         *
+         * @return RetryPolicy instance
+         */
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
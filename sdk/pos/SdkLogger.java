@@ -0,0 +1,57 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Logging sink used by the SDK core. Android builds log to logcat by default;
+ * headless (plain JVM) builds are silent unless a logger is supplied through
+ * {@link AsianCryptoPayment.Builder#setLogger(SdkLogger)}.
+ */
+public interface SdkLogger {
+    /**
+     * Logger that discards all messages
+     */
+    SdkLogger NONE = new SdkLogger() {
+        @Override
+        public void debug(@NonNull String message) {
+        }
+
+        @Override
+        public void info(@NonNull String message) {
+        }
+
+        @Override
+        public void warn(@NonNull String message, @Nullable Throwable error) {
+        }
+
+        @Override
+        public void error(@NonNull String message, @Nullable Throwable error) {
+        }
+    };
+
+    /**
+     * Logger that writes to Android logcat. This is the default for builders
+     * created with a Context.
+     *
+     * @param tag Logcat tag
+     * @return Logcat logger
+     */
+    @NonNull
+    static SdkLogger logcat(@NonNull String tag) {
+        return new AndroidSdkLogger(tag);
+    }
+
+    void debug(@NonNull String message);
+
+    void info(@NonNull String message);
+
+    void warn(@NonNull String message, @Nullable Throwable error);
+
+    void error(@NonNull String message, @Nullable Throwable error);
+}
@@ -0,0 +1,44 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-wide timer thread for delayed SDK work (request pacing, retries,
+ * background refreshes). Tasks scheduled here must be short and must not
+ * block; network calls are handed to the OkHttp dispatcher.
+ */
+final class SharedScheduler {
+    private static final ScheduledExecutorService SCHEDULER = create();
+
+    private SharedScheduler() {
+    }
+
+    @NonNull
+    static ScheduledExecutorService get() {
+        return SCHEDULER;
+    }
+
+    private static ScheduledExecutorService create() {
+        final AtomicInteger count = new AtomicInteger();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull Runnable runnable) {
+                Thread thread = new Thread(runnable, "AsianCryptoPayment-scheduler-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+}
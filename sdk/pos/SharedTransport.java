@@ -0,0 +1,116 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Process-wide HTTP transport shared by all SDK instances.
+ *
+ * Each distinct TransportConfig maps to exactly one root OkHttpClient. SDK
+ * instances derive their own client from it with newBuilder(), which keeps the
+ * connection pool, dispatcher threads and TLS session cache shared, so
+ * rebuilding the SDK (for example on a country change) does not throw away
+ * warm connections.
+ */
+final class SharedTransport {
+    private static final ConcurrentMap<TransportConfig, OkHttpClient> CLIENTS = new ConcurrentHashMap<>();
+
+    private SharedTransport() {
+    }
+
+    /**
+     * Get the shared root client for a transport configuration
+     *
+     * @param config Transport configuration
+     * @return Shared OkHttpClient
+     */
+    @NonNull
+    static OkHttpClient client(@NonNull TransportConfig config) {
+        OkHttpClient client = CLIENTS.get(config);
+        if (client != null) {
+            return client;
+        }
+
+        OkHttpClient created = createClient(config);
+        OkHttpClient existing = CLIENTS.putIfAbsent(config, created);
+        if (existing != null) {
+            // Lost the race; release the threads of the client we just built
+            created.dispatcher().executorService().shutdown();
+            return existing;
+        }
+        return created;
+    }
+
+    private static OkHttpClient createClient(TransportConfig config) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(config.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(config.getMaxRequestsPerHost());
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(config.getMaxIdleConnections(),
+                        config.getKeepAliveMillis(), TimeUnit.MILLISECONDS))
+                .retryOnConnectionFailure(true);
+
+        // HTTP/2 multiplexes concurrent calls to the API host over one connection
+        if (config.isHttp2Enabled()) {
+            builder.protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+        } else {
+            builder.protocols(Collections.singletonList(Protocol.HTTP_1_1));
+        }
+
+        try {
+            X509TrustManager trustManager = defaultTrustManager();
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, new TrustManager[] { trustManager }, null);
+
+            // A dedicated, sized session cache lets reconnects resume TLS sessions
+            // instead of paying for a full handshake
+            SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+            if (sessionContext != null) {
+                sessionContext.setSessionCacheSize(config.getTlsSessionCacheSize());
+                sessionContext.setSessionTimeout(config.getTlsSessionTimeoutSeconds());
+            }
+
+            builder.sslSocketFactory(sslContext.getSocketFactory(), trustManager);
+        } catch (GeneralSecurityException e) {
+            // Fall back to the platform default socket factory
+        }
+
+        return builder.build();
+    }
+
+    private static X509TrustManager defaultTrustManager() throws GeneralSecurityException {
+        TrustManagerFactory factory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        factory.init((KeyStore) null);
+        for (TrustManager trustManager : factory.getTrustManagers()) {
+            if (trustManager instanceof X509TrustManager) {
+                return (X509TrustManager) trustManager;
+            }
+        }
+        throw new GeneralSecurityException("No X509TrustManager available");
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.asiancryptopay.sdk.AsianCryptoPayment.Payment;
+import com.asiancryptopay.sdk.AsianCryptoPayment.PaymentDetails;
+import com.asiancryptopay.sdk.AsianCryptoPayment.PaymentFilters;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Blocking view of AsianCryptoPayment for JVM server deployments.
+ *
+ * Every method performs its request on the calling thread and returns the
+ * result directly. The request path takes no locks and never touches
+ * Handler or Looper, so it can be driven thread-per-request from Java 21
+ * virtual threads. Obtain an instance with {@link AsianCryptoPayment#sync()}.
+ */
+public final class SyncClient {
+    private final AsianCryptoPayment sdk;
+    private final ApiTransport transport;
+
+    SyncClient(@NonNull AsianCryptoPayment sdk, @NonNull ApiTransport transport) {
+        this.sdk = sdk;
+        this.transport = transport;
+    }
+
+    /**
+     * Create a new cryptocurrency payment
+     *
+     * @param paymentDetails Payment details
+     * @return Created payment
+     * @throws IllegalArgumentException If the payment details fail validation
+     * @throws IOException If the request fails or the API returns an error
+     */
+    @NonNull
+    public Payment createPayment(@NonNull PaymentDetails paymentDetails) throws IOException {
+        return transport.execute(sdk.newCreatePaymentCall(paymentDetails), AsianCryptoPaymentAsync.PAYMENT_PARSER);
+    }
+
+    /**
+     * Create a batch of payments. The whole batch is validated before anything is
+     * sent; payments that pass are created with up to maxConcurrency requests in
+     * flight while the calling thread waits.
+     *
+     * @param batch Payment details
+     * @param maxConcurrency Maximum requests in flight
+     * @return One result per payment, in batch order; failures are reported per payment
+     * @throws IOException If interrupted while waiting
+     */
+    @NonNull
+    public List<PaymentCreationResult> createPayments(@NonNull List<PaymentDetails> batch, int maxConcurrency)
+            throws IOException {
+        return ApiTransport.await(sdk.submitPayments(batch, maxConcurrency));
+    }
+
+    /**
+     * Get payment details by ID. Hedged when enabled with
+     * {@link AsianCryptoPayment.Builder#setHedging(double)}.
+     *
+     * @param paymentId Payment ID
+     * @return Payment
+     * @throws IOException If the request fails or the API returns an error
+     */
+    @NonNull
+    public Payment getPayment(@NonNull String paymentId) throws IOException {
+        requirePaymentId(paymentId);
+        long hedgeDelayNanos = sdk.hedgeDelayNanos();
+        if (hedgeDelayNanos >= 0) {
+            return ApiTransport.await(sdk.fetchPayment(paymentId, hedgeDelayNanos));
+        }
+        return transport.execute(transport.newCall("payments/" + paymentId, "GET"),
+                AsianCryptoPaymentAsync.PAYMENT_PARSER);
+    }
+
+    /**
+     * Get many payments by transaction ID, in batches through the payments listing
+     * where the API supports filtering by ID, otherwise as concurrent single lookups
+     *
+     * @param transactionIds Transaction IDs
+     * @param maxConcurrency Maximum requests in flight
+     * @return Payments found, keyed by transaction ID in request order
+     * @throws IOException If a request fails or the API returns an error
+     */
+    @NonNull
+    public Map<String, Payment> getPayments(@NonNull Collection<String> transactionIds, int maxConcurrency)
+            throws IOException {
+        return ApiTransport.await(sdk.fetchPayments(transactionIds, maxConcurrency));
+    }
+
+    /**
+     * Get the exchange rate between a cryptocurrency and a fiat currency, from the
+     * exchange rate cache when it holds unexpired rates
+     *
+     * @param crypto Cryptocurrency code
+     * @param fiat Fiat currency code
+     * @return Exchange rate
+     * @throws IllegalArgumentException If the API does not quote the pair
+     * @throws IOException If the rates cannot be loaded
+     */
+    @NonNull
+    public ExchangeRate getExchangeRate(@NonNull String crypto, @NonNull String fiat) throws IOException {
+        return ApiTransport.await(sdk.fetchExchangeRate(crypto, fiat));
+    }
+
+    /**
+     * Get a page of payments
+     *
+     * @param filters Filter parameters
+     * @return Page of payments
+     * @throws IOException If the request fails or the API returns an error
+     */
+    @NonNull
+    public PaymentPage getPayments(@Nullable PaymentFilters filters) throws IOException {
+        return transport.execute(transport.newCall(sdk.buildPaymentsEndpoint(filters), "GET"),
+                AsianCryptoPaymentAsync.PAYMENT_PAGE_PARSER);
+    }
+
+    /**
+     * Get a page of payments, streaming each payment to a consumer on the calling
+     * thread as it is decoded instead of materializing the page
+     *
+     * @param filters Filter parameters
+     * @param consumer Receives each payment, in response order
+     * @return Total number of matching payments
+     * @throws IOException If the request fails or the API returns an error
+     */
+    public int getPayments(@Nullable PaymentFilters filters, @NonNull Consumer<Payment> consumer) throws IOException {
+        return transport.execute(transport.newCall(sdk.buildPaymentsEndpoint(filters), "GET"),
+                AsianCryptoPaymentAsync.streamingParser(consumer));
+    }
+
+    /**
+     * Iterate over all payments matching the filters, page by page, prefetching the
+     * next page while the current one is consumed. The page size is taken from the
+     * filters' limit (capped at 100) and defaults to 100.
+     *
+     * @param filters Filter parameters; the offset is used as the starting point
+     * @return Pager over the matching payments
+     */
+    @NonNull
+    public PaymentPager iteratePayments(@Nullable PaymentFilters filters) {
+        int pageSize = filters != null && filters.getLimit() > 0
+                ? Math.min(filters.getLimit(), PaymentPager.MAX_PAGE_SIZE)
+                : PaymentPager.MAX_PAGE_SIZE;
+        return iteratePayments(filters, pageSize, 1);
+    }
+
+    /**
+     * Iterate over all payments matching the filters with explicit paging settings
+     *
+     * @param filters Filter parameters; the offset is used as the starting point
+     * @param pageSize Payments per request (1-100)
+     * @param prefetchDepth Number of pages to keep in flight ahead of the one being consumed
+     * @return Pager over the matching payments
+     */
+    @NonNull
+    public PaymentPager iteratePayments(@Nullable PaymentFilters filters, int pageSize, int prefetchDepth) {
+        return new PaymentPager(sdk, transport, filters, pageSize, prefetchDepth);
+    }
+
+    /**
+     * Cancel a payment
+     *
+     * @param paymentId Payment ID
+     * @return Cancelled payment
+     * @throws IOException If the request fails or the API returns an error
+     */
+    @NonNull
+    public Payment cancelPayment(@NonNull String paymentId) throws IOException {
+        requirePaymentId(paymentId);
+        return transport.execute(transport.newCall("payments/" + paymentId + "/cancel", "POST"),
+                AsianCryptoPaymentAsync.PAYMENT_PARSER);
+    }
+
+    private static void requirePaymentId(String paymentId) {
+        if (paymentId.isEmpty()) {
+            throw new IllegalArgumentException("Payment ID is required");
+        }
+    }
+}
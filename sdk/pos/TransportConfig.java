@@ -0,0 +1,183 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tuning parameters for the process-wide HTTP transport shared by every
+ * AsianCryptoPayment instance.
+ */
+public final class TransportConfig {
+    private final int maxIdleConnections;
+    private final long keepAliveMillis;
+    private final int maxRequests;
+    private final int maxRequestsPerHost;
+    private final boolean http2Enabled;
+    private final int tlsSessionCacheSize;
+    private final int tlsSessionTimeoutSeconds;
+
+    private TransportConfig(Builder builder) {
+        this.maxIdleConnections = builder.maxIdleConnections;
+        this.keepAliveMillis = builder.keepAliveMillis;
+        this.maxRequests = builder.maxRequests;
+        this.maxRequestsPerHost = builder.maxRequestsPerHost;
+        this.http2Enabled = builder.http2Enabled;
+        this.tlsSessionCacheSize = builder.tlsSessionCacheSize;
+        this.tlsSessionTimeoutSeconds = builder.tlsSessionTimeoutSeconds;
+    }
+
+    /**
+     * Default transport settings, sized for a single terminal talking to one API host
+     *
+     * @return Default TransportConfig
+     */
+    @NonNull
+    public static TransportConfig defaults() {
+        return new Builder().build();
+    }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public long getKeepAliveMillis() {
+        return keepAliveMillis;
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    public boolean isHttp2Enabled() {
+        return http2Enabled;
+    }
+
+    public int getTlsSessionCacheSize() {
+        return tlsSessionCacheSize;
+    }
+
+    public int getTlsSessionTimeoutSeconds() {
+        return tlsSessionTimeoutSeconds;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TransportConfig)) return false;
+        TransportConfig that = (TransportConfig) o;
+        return maxIdleConnections == that.maxIdleConnections
+                && keepAliveMillis == that.keepAliveMillis
+                && maxRequests == that.maxRequests
+                && maxRequestsPerHost == that.maxRequestsPerHost
+                && http2Enabled == that.http2Enabled
+                && tlsSessionCacheSize == that.tlsSessionCacheSize
+                && tlsSessionTimeoutSeconds == that.tlsSessionTimeoutSeconds;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = maxIdleConnections;
+        result = 31 * result + (int) (keepAliveMillis ^ (keepAliveMillis >>> 32));
+        result = 31 * result + maxRequests;
+        result = 31 * result + maxRequestsPerHost;
+        result = 31 * result + (http2Enabled ? 1 : 0);
+        result = 31 * result + tlsSessionCacheSize;
+        result = 31 * result + tlsSessionTimeoutSeconds;
+        return result;
+    }
+
+    /**
+     * Builder class for TransportConfig
+     */
+    public static final class Builder {
+        private int maxIdleConnections = 5;
+        private long keepAliveMillis = TimeUnit.MINUTES.toMillis(5);
+        private int maxRequests = 64;
+        private int maxRequestsPerHost = 16;
+        private boolean http2Enabled = true;
+        private int tlsSessionCacheSize = 32;
+        private int tlsSessionTimeoutSeconds = (int) TimeUnit.HOURS.toSeconds(12);
+
+        /**
+         * Set connection pool size
+         *
+         * @param maxIdleConnections Maximum number of idle connections kept in the pool
+         * @param keepAlive Time an idle connection is kept before eviction
+         * @param unit Time unit of keepAlive
+         * @return Builder instance
+         */
+        public Builder setConnectionPool(int maxIdleConnections, long keepAlive, @NonNull TimeUnit unit) {
+            if (maxIdleConnections < 0) {
+                throw new IllegalArgumentException("maxIdleConnections must not be negative");
+            }
+            if (keepAlive <= 0) {
+                throw new IllegalArgumentException("keepAlive must be greater than zero");
+            }
+            this.maxIdleConnections = maxIdleConnections;
+            this.keepAliveMillis = unit.toMillis(keepAlive);
+            return this;
+        }
+
+        /**
+         * Set dispatcher concurrency limits
+         *
+         * @param maxRequests Maximum concurrent asynchronous requests
+         * @param maxRequestsPerHost Maximum concurrent asynchronous requests per host
+         * @return Builder instance
+         */
+        public Builder setDispatcherLimits(int maxRequests, int maxRequestsPerHost) {
+            if (maxRequests < 1 || maxRequestsPerHost < 1) {
+                throw new IllegalArgumentException("Dispatcher limits must be at least 1");
+            }
+            this.maxRequests = maxRequests;
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * Enable or disable HTTP/2 negotiation (enabled by default)
+         *
+         * @param http2Enabled Whether to offer HTTP/2 via ALPN
+         * @return Builder instance
+         */
+        public Builder setHttp2Enabled(boolean http2Enabled) {
+            this.http2Enabled = http2Enabled;
+            return this;
+        }
+
+        /**
+         * Set TLS session cache parameters used for session resumption
+         *
+         * @param cacheSize Maximum number of cached TLS sessions
+         * @param timeoutSeconds Lifetime of a cached TLS session
+         * @return Builder instance
+         */
+        public Builder setTlsSessionCache(int cacheSize, int timeoutSeconds) {
+            if (cacheSize < 0 || timeoutSeconds < 0) {
+                throw new IllegalArgumentException("TLS session cache parameters must not be negative");
+            }
+            this.tlsSessionCacheSize = cacheSize;
+            this.tlsSessionTimeoutSeconds = timeoutSeconds;
+            return this;
+        }
+
+        /**
+         * Build TransportConfig instance
+         *
+         * @return TransportConfig instance
+         */
+        public TransportConfig build() {
+            return new TransportConfig(this);
+        }
+    }
+}
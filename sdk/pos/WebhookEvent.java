@@ -0,0 +1,107 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.asiancryptopay.sdk.AsianCryptoPayment.Payment;
+
+import org.json.JSONObject;
+
+/**
+ * A verified payment webhook
+ */
+public final class WebhookEvent {
+    /**
+     * Payment webhook event types
+     */
+    public enum Type {
+        CREATED("payment.created"),
+        PENDING("payment.pending"),
+        COMPLETED("payment.completed"),
+        FAILED("payment.failed"),
+        EXPIRED("payment.expired"),
+        REFUNDED("payment.refunded");
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        /**
+         * @return Event name as sent in the payload, e.g. "payment.completed"
+         */
+        @NonNull
+        public String getEventName() {
+            return eventName;
+        }
+
+        /**
+         * @param eventName Event name from a payload
+         * @return Matching type, or null for events the SDK does not know
+         */
+        @Nullable
+        public static Type forEventName(@Nullable String eventName) {
+            for (Type type : values()) {
+                if (type.eventName.equals(eventName)) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Type type;
+    private final String transactionId;
+    private final String timestamp;
+    private final JSONObject data;
+    private final Payment payment;
+
+    WebhookEvent(@NonNull Type type, @NonNull String transactionId, @Nullable String timestamp,
+                 @NonNull JSONObject data, @NonNull Payment payment) {
+        this.type = type;
+        this.transactionId = transactionId;
+        this.timestamp = timestamp;
+        this.data = data;
+        this.payment = payment;
+    }
+
+    @NonNull
+    public Type getType() {
+        return type;
+    }
+
+    @NonNull
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    /**
+     * @return Time the event was sent (ISO 8601), if present
+     */
+    @Nullable
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return The payload's data object
+     */
+    @NonNull
+    public JSONObject getData() {
+        return data;
+    }
+
+    /**
+     * @return Payment decoded from the payload's data object
+     */
+    @NonNull
+    public Payment getPayment() {
+        return payment;
+    }
+}
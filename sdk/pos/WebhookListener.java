@@ -0,0 +1,22 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Receives verified payment webhooks from a WebhookProcessor.
+ *
+ * Called on a webhook worker thread. Events for the same transaction are
+ * delivered one at a time in the order they were received; a slow listener
+ * delays other events queued on the same worker.
+ */
+public interface WebhookListener {
+    /**
+     * @param event Verified, deduplicated event
+     */
+    void onPaymentEvent(@NonNull WebhookEvent event);
+}
@@ -0,0 +1,435 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.asiancryptopay.sdk.AsianCryptoPayment.Payment;
+import com.asiancryptopay.sdk.WebhookEvent.Type;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okio.Buffer;
+
+/**
+ * Verifies and dispatches payment webhooks.
+ *
+ * {@link #process} checks the X-Webhook-Signature header against an
+ * HMAC-SHA256 of the raw body bytes with a pre-keyed Mac and a constant-time
+ * comparison, drops events already seen (by transaction_id and event), and
+ * queues the rest for delivery to listeners. The payment is decoded before
+ * the event is recorded or queued, so a payload that cannot be decoded is
+ * refused with {@link Result#MALFORMED} rather than acknowledged and lost.
+ * It returns as soon as the event is queued, so the caller can acknowledge
+ * the webhook without waiting for listeners.
+ *
+ * Delivery runs on a fixed set of single-thread workers with bounded queues.
+ * Events are assigned to a worker by transaction ID, so the events of one
+ * payment are delivered in order. When a worker's queue is full the event is
+ * refused with {@link Result#OVERLOADED} and forgotten, so the sender's retry
+ * is accepted later.
+ */
+public final class WebhookProcessor {
+    /** Header carrying the hex HMAC-SHA256 of the body */
+    public static final String SIGNATURE_HEADER = "X-Webhook-Signature";
+
+    /**
+     * Outcome of processing one webhook request
+     */
+    public enum Result {
+        /** Verified and queued for delivery */
+        ACCEPTED(200),
+        /** Verified; the same event was already accepted */
+        DUPLICATE(200),
+        /** Verified; not a payment event the SDK knows */
+        IGNORED(200),
+        /** Signature missing or wrong */
+        INVALID_SIGNATURE(401),
+        /** Verified but not a well-formed webhook payload */
+        MALFORMED(400),
+        /** Verified but the delivery queue is full; the sender should retry */
+        OVERLOADED(503);
+
+        private final int httpStatus;
+
+        Result(int httpStatus) {
+            this.httpStatus = httpStatus;
+        }
+
+        /**
+         * @return HTTP status to answer the webhook request with
+         */
+        public int getHttpStatus() {
+            return httpStatus;
+        }
+    }
+
+    private final HmacEngine hmacEngine;
+    private final SdkLogger logger;
+    private final ThreadPoolExecutor[] workers;
+    private final DedupeWindow dedupeWindow;
+    private final List<WebhookListener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<Type, List<WebhookListener>> typedListeners;
+
+    private WebhookProcessor(Builder builder) {
+        this.hmacEngine = new HmacEngine(builder.secret.getBytes(StandardCharsets.UTF_8));
+        this.logger = builder.logger;
+        this.dedupeWindow = new DedupeWindow(builder.dedupeCapacity, TimeUnit.MILLISECONDS.toNanos(builder.dedupeWindowMillis));
+
+        Map<Type, List<WebhookListener>> typed = new EnumMap<>(Type.class);
+        for (Type type : Type.values()) {
+            typed.put(type, new CopyOnWriteArrayList<WebhookListener>());
+        }
+        this.typedListeners = Collections.unmodifiableMap(typed);
+
+        final AtomicInteger count = new AtomicInteger();
+        ThreadFactory threadFactory = new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull Runnable runnable) {
+                Thread thread = new Thread(runnable, "AsianCryptoPayment-webhook-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+        int queueCapacity = Math.max(1, builder.queueCapacity / builder.workerThreads);
+        this.workers = new ThreadPoolExecutor[builder.workerThreads];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<Runnable>(queueCapacity), threadFactory);
+        }
+    }
+
+    /**
+     * Listen for all payment events
+     *
+     * @param listener Listener
+     */
+    public void addListener(@NonNull WebhookListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Listen for one payment event type
+     *
+     * @param type Event type
+     * @param listener Listener
+     */
+    public void addListener(@NonNull Type type, @NonNull WebhookListener listener) {
+        typedListeners.get(type).add(listener);
+    }
+
+    /**
+     * Remove a listener from all event types
+     *
+     * @param listener Listener
+     */
+    public void removeListener(@NonNull WebhookListener listener) {
+        listeners.remove(listener);
+        for (List<WebhookListener> typed : typedListeners.values()) {
+            typed.remove(listener);
+        }
+    }
+
+    /**
+     * Process a webhook request
+     *
+     * @param body Raw request body
+     * @param signature Value of the X-Webhook-Signature header
+     * @return Outcome, including the HTTP status to answer with
+     */
+    @NonNull
+    public Result process(@NonNull byte[] body, @Nullable String signature) {
+        return process(body, 0, body.length, signature);
+    }
+
+    /**
+     * Process a webhook request whose body is a slice of a larger array
+     *
+     * @param body Array holding the raw request body
+     * @param offset Start of the body
+     * @param length Length of the body
+     * @param signature Value of the X-Webhook-Signature header
+     * @return Outcome, including the HTTP status to answer with
+     */
+    @NonNull
+    public Result process(@NonNull byte[] body, int offset, int length, @Nullable String signature) {
+        if (signature == null || !hmacEngine.begin().update(body, offset, length).finishAndVerifyHex(signature)) {
+            return Result.INVALID_SIGNATURE;
+        }
+        Buffer payload = new Buffer();
+        payload.write(body, offset, length);
+        return accept(payload);
+    }
+
+    /**
+     * Process a webhook request whose body is the remaining content of a
+     * buffer. The buffer's position is not changed.
+     *
+     * @param body Raw request body
+     * @param signature Value of the X-Webhook-Signature header
+     * @return Outcome, including the HTTP status to answer with
+     */
+    @NonNull
+    public Result process(@NonNull ByteBuffer body, @Nullable String signature) {
+        if (signature == null || !hmacEngine.begin().update(body).finishAndVerifyHex(signature)) {
+            return Result.INVALID_SIGNATURE;
+        }
+        Buffer payload = new Buffer();
+        payload.write(body.duplicate());
+        return accept(payload);
+    }
+
+    /**
+     * Stop accepting events. Events already queued are still delivered.
+     */
+    public void shutdown() {
+        for (ThreadPoolExecutor worker : workers) {
+            worker.shutdown();
+        }
+    }
+
+    private Result accept(Buffer payload) {
+        JSONObject json;
+        try {
+            json = new JsonStreamReader(payload).readObject();
+        } catch (IOException | JSONException e) {
+            logger.warn("Malformed webhook payload", e);
+            return Result.MALFORMED;
+        }
+
+        String eventName = json.optString("event", null);
+        JSONObject data = json.optJSONObject("data");
+        if (eventName == null || data == null) {
+            return Result.MALFORMED;
+        }
+        Type type = Type.forEventName(eventName);
+        if (type == null) {
+            logger.debug("Ignoring webhook event " + eventName);
+            return Result.IGNORED;
+        }
+        String transactionId = data.optString("transaction_id", null);
+        if (transactionId == null || transactionId.isEmpty()) {
+            return Result.MALFORMED;
+        }
+        // Decode before acknowledging: once answered 200 the sender will not redeliver
+        Payment payment;
+        try {
+            payment = Payment.fromJson(data);
+        } catch (JSONException | RuntimeException e) {
+            logger.warn("Failed to decode payment in " + eventName + " webhook for " + transactionId, e);
+            return Result.MALFORMED;
+        }
+        WebhookEvent event = new WebhookEvent(type, transactionId, json.optString("timestamp", null), data, payment);
+
+        String key = transactionId + '\n' + eventName;
+        if (!dedupeWindow.add(key)) {
+            return Result.DUPLICATE;
+        }
+        ThreadPoolExecutor worker = workers[(transactionId.hashCode() & Integer.MAX_VALUE) % workers.length];
+        try {
+            worker.execute(new Delivery(event));
+        } catch (RejectedExecutionException e) {
+            dedupeWindow.remove(key);
+            logger.warn("Webhook queue full, refusing " + eventName + " for " + transactionId, null);
+            return Result.OVERLOADED;
+        }
+        return Result.ACCEPTED;
+    }
+
+    /**
+     * Hands one decoded event to its listeners
+     */
+    private final class Delivery implements Runnable {
+        private final WebhookEvent event;
+
+        Delivery(WebhookEvent event) {
+            this.event = event;
+        }
+
+        @Override
+        public void run() {
+            deliver(typedListeners.get(event.getType()), event);
+            deliver(listeners, event);
+        }
+
+        private void deliver(List<WebhookListener> targets, WebhookEvent event) {
+            for (WebhookListener listener : targets) {
+                try {
+                    listener.onPaymentEvent(event);
+                } catch (RuntimeException e) {
+                    logger.error("Webhook listener failed", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Keys seen within a time window, bounded in number. Oldest keys are
+     * evicted first; insertion and lookup take no lock.
+     */
+    private static final class DedupeWindow {
+        private final int capacity;
+        private final long windowNanos;
+        private final ConcurrentHashMap<String, Mark> seen = new ConcurrentHashMap<>();
+        private final ConcurrentLinkedQueue<Mark> order = new ConcurrentLinkedQueue<>();
+
+        DedupeWindow(int capacity, long windowNanos) {
+            this.capacity = capacity;
+            this.windowNanos = windowNanos;
+        }
+
+        /**
+         * @return Whether the key was not already in the window
+         */
+        boolean add(String key) {
+            long now = System.nanoTime();
+            evict(now);
+            Mark mark = new Mark(key, now);
+            if (seen.putIfAbsent(key, mark) != null) {
+                return false;
+            }
+            order.add(mark);
+            return true;
+        }
+
+        void remove(String key) {
+            // The queue entry becomes stale and is dropped when it reaches the head
+            seen.remove(key);
+        }
+
+        private void evict(long now) {
+            while (true) {
+                Mark oldest = order.peek();
+                if (oldest == null) {
+                    return;
+                }
+                boolean live = seen.get(oldest.key) == oldest;
+                if (live && seen.size() <= capacity && now - oldest.atNanos < windowNanos) {
+                    return;
+                }
+                if (order.remove(oldest)) {
+                    seen.remove(oldest.key, oldest);
+                }
+            }
+        }
+
+        private static final class Mark {
+            final String key;
+            final long atNanos;
+
+            Mark(String key, long atNanos) {
+                this.key = key;
+                this.atNanos = atNanos;
+            }
+        }
+    }
+
+    /**
+     * Builder class for WebhookProcessor
+     */
+    public static final class Builder {
+        private final String secret;
+        private int workerThreads = 2;
+        private int queueCapacity = 1024;
+        private int dedupeCapacity = 10000;
+        private long dedupeWindowMillis = TimeUnit.HOURS.toMillis(24);
+        private SdkLogger logger = SdkLogger.NONE;
+
+        /**
+         * @param secret Webhook secret shared with the payment system
+         */
+        public Builder(@NonNull String secret) {
+            if (secret.isEmpty()) {
+                throw new IllegalArgumentException("Webhook secret is required");
+            }
+            this.secret = secret;
+        }
+
+        /**
+         * Set the number of delivery threads
+         *
+         * @param workerThreads Delivery threads (default 2)
+         * @return Builder instance
+         */
+        public Builder setWorkerThreads(int workerThreads) {
+            if (workerThreads < 1) {
+                throw new IllegalArgumentException("workerThreads must be at least 1");
+            }
+            this.workerThreads = workerThreads;
+            return this;
+        }
+
+        /**
+         * Set how many events may wait for delivery, across all threads
+         *
+         * @param queueCapacity Queued events (default 1024)
+         * @return Builder instance
+         */
+        public Builder setQueueCapacity(int queueCapacity) {
+            if (queueCapacity < 1) {
+                throw new IllegalArgumentException("queueCapacity must be at least 1");
+            }
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Set how many events, and for how long, are remembered for deduplication
+         *
+         * @param capacity Maximum remembered events (default 10000)
+         * @param window How long an event is remembered (default 24 hours)
+         * @param unit Time unit of window
+         * @return Builder instance
+         */
+        public Builder setDedupe(int capacity, long window, @NonNull TimeUnit unit) {
+            if (capacity < 1 || window <= 0) {
+                throw new IllegalArgumentException("Dedupe capacity and window must be positive");
+            }
+            this.dedupeCapacity = capacity;
+            this.dedupeWindowMillis = unit.toMillis(window);
+            return this;
+        }
+
+        /**
+         * Set logger
+         *
+         * @param logger Logging sink
+         * @return Builder instance
+         */
+        public Builder setLogger(@NonNull SdkLogger logger) {
+            this.logger = logger;
+            return this;
+        }
+
+        /**
+         * Build WebhookProcessor instance
+         *
+         * @return WebhookProcessor instance
+         */
+        public WebhookProcessor build() {
+            return new WebhookProcessor(this);
+        }
+    }
+}
@@ -0,0 +1,619 @@
+/**
+ * Asian Cryptocurrency Payment System - POS Terminal SDK
+ * Version: 1.0.0
+ */
+
+package com.asiancryptopay.sdk;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Minimal embedded HTTP/1.1 server that feeds POSTed webhooks to a
+ * WebhookProcessor, for in-store hubs that should receive webhooks without
+ * a separate web application.
+ *
+ * A fixed number of NIO selector threads serve all connections; the first
+ * also accepts them. Each request body is read into the connection's buffer
+ * and handed to {@link WebhookProcessor#process(ByteBuffer, String)} as a
+ * view of that buffer. The signature is verified on that view, so only a
+ * verified body is copied, once, into the processor's JSON parser.
+ * Verification and parsing run on the selector thread; listeners run on the processor's
+ * workers. Bodies must be sent with Content-Length; chunked requests are
+ * refused with 411.
+ *
+ * Bind to port 0 and read {@link #getPort()} to run the server on an
+ * ephemeral localhost port, e.g. in tests.
+ */
+public final class WebhookServer implements Closeable {
+    private static final int HEADER_LIMIT = 8 * 1024;
+    private static final int BACKLOG = 128;
+    private static final long IDLE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long SELECT_TIMEOUT_MILLIS = 1000;
+    private static final byte[] CONTINUE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final WebhookProcessor processor;
+    private final String bindHost;
+    private final int port;
+    private final String path;
+    private final int maxBodySize;
+    private final SdkLogger logger;
+    private final IoLoop[] loops;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile ServerSocketChannel serverChannel;
+
+    private WebhookServer(Builder builder) {
+        this.processor = builder.processor;
+        this.bindHost = builder.bindHost;
+        this.port = builder.port;
+        this.path = builder.path;
+        this.maxBodySize = builder.maxBodySize;
+        this.logger = builder.logger;
+        this.loops = new IoLoop[builder.ioThreads];
+    }
+
+    /**
+     * @return Processor that receives this server's webhooks; add listeners here before starting
+     */
+    @NonNull
+    public WebhookProcessor getProcessor() {
+        return processor;
+    }
+
+    /**
+     * Bind the port and start serving
+     *
+     * @return This server
+     * @throws IOException If the port cannot be bound
+     * @throws IllegalStateException If the server was already started
+     */
+    @NonNull
+    public WebhookServer start() throws IOException {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("Webhook server already started");
+        }
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        try {
+            channel.socket().setReuseAddress(true);
+            channel.socket().bind(bindHost != null ? new InetSocketAddress(bindHost, port) : new InetSocketAddress(port), BACKLOG);
+            channel.configureBlocking(false);
+            for (int i = 0; i < loops.length; i++) {
+                loops[i] = new IoLoop(Selector.open());
+            }
+            channel.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            channel.close();
+            for (IoLoop loop : loops) {
+                if (loop != null) {
+                    loop.selector.close();
+                }
+            }
+            throw e;
+        }
+        serverChannel = channel;
+        for (int i = 0; i < loops.length; i++) {
+            Thread thread = new Thread(loops[i], "AsianCryptoPayment-webhook-io-" + (i + 1));
+            thread.setDaemon(true);
+            thread.start();
+        }
+        logger.info("Webhook server listening on port " + getPort() + (path != null ? " at " + path : ""));
+        return this;
+    }
+
+    /**
+     * @return Bound port, or -1 before start()
+     */
+    public int getPort() {
+        ServerSocketChannel channel = serverChannel;
+        return channel != null ? channel.socket().getLocalPort() : -1;
+    }
+
+    /**
+     * Stop serving, close all connections and shut down the processor
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        ServerSocketChannel channel = serverChannel;
+        if (channel != null) {
+            channel.close();
+        }
+        for (IoLoop loop : loops) {
+            if (loop != null) {
+                loop.selector.wakeup();
+            }
+        }
+        processor.shutdown();
+    }
+
+    private static byte[] response(int status, boolean keepAlive) {
+        return ("HTTP/1.1 " + status + " " + reason(status) + "\r\n"
+                + "Content-Length: 0\r\n"
+                + "Connection: " + (keepAlive ? "keep-alive" : "close") + "\r\n"
+                + "\r\n").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String reason(int status) {
+        switch (status) {
+            case 200: return "OK";
+            case 400: return "Bad Request";
+            case 401: return "Unauthorized";
+            case 404: return "Not Found";
+            case 405: return "Method Not Allowed";
+            case 411: return "Length Required";
+            case 413: return "Payload Too Large";
+            case 431: return "Request Header Fields Too Large";
+            case 500: return "Internal Server Error";
+            case 503: return "Service Unavailable";
+            default: return "Status";
+        }
+    }
+
+    /**
+     * One selector thread and the connections registered with it
+     */
+    private final class IoLoop implements Runnable {
+        final Selector selector;
+        private final Queue<SocketChannel> incoming = new ConcurrentLinkedQueue<>();
+        private int nextLoop;
+        private long lastSweepNanos = System.nanoTime();
+
+        IoLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        void hand(SocketChannel channel) {
+            incoming.add(channel);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed.get()) {
+                    selector.select(SELECT_TIMEOUT_MILLIS);
+                    registerIncoming();
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        if (key.isValid()) {
+                            handle(key);
+                        }
+                    }
+                    closeIdle();
+                }
+            } catch (IOException | RuntimeException e) {
+                if (!closed.get()) {
+                    logger.error("Webhook server I/O loop failed", e);
+                }
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    closeQuietly(key);
+                }
+                closeQuietly(selector);
+            }
+        }
+
+        private void handle(SelectionKey key) {
+            if (key.isAcceptable()) {
+                accept();
+                return;
+            }
+            Connection connection = (Connection) key.attachment();
+            try {
+                if (key.isReadable()) {
+                    connection.onReadable();
+                }
+                if (key.isValid() && key.isWritable()) {
+                    connection.onWritable();
+                }
+            } catch (IOException e) {
+                logger.debug("Webhook connection closed: " + e);
+                closeQuietly(key);
+            } catch (RuntimeException e) {
+                // A bad request must not take down the loop and its other connections
+                logger.error("Webhook request failed", e);
+                connection.abort();
+            }
+        }
+
+        private void accept() {
+            try {
+                SocketChannel channel;
+                while ((channel = serverChannel.accept()) != null) {
+                    channel.configureBlocking(false);
+                    channel.socket().setTcpNoDelay(true);
+                    IoLoop target = loops[nextLoop];
+                    nextLoop = (nextLoop + 1) % loops.length;
+                    target.hand(channel);
+                }
+            } catch (IOException e) {
+                if (!closed.get()) {
+                    logger.warn("Failed to accept webhook connection", e);
+                }
+            }
+        }
+
+        private void registerIncoming() {
+            SocketChannel channel;
+            while ((channel = incoming.poll()) != null) {
+                try {
+                    SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                    key.attach(new Connection(channel, key));
+                } catch (IOException e) {
+                    closeQuietly(channel);
+                }
+            }
+        }
+
+        private void closeIdle() {
+            long now = System.nanoTime();
+            if (now - lastSweepNanos < TimeUnit.MILLISECONDS.toNanos(SELECT_TIMEOUT_MILLIS)) {
+                return;
+            }
+            lastSweepNanos = now;
+            for (SelectionKey key : selector.keys()) {
+                Object attachment = key.attachment();
+                if (attachment instanceof Connection && now - ((Connection) attachment).lastActiveNanos > IDLE_TIMEOUT_NANOS) {
+                    closeQuietly(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Parsing and response state of one keep-alive connection
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private ByteBuffer in = ByteBuffer.allocate(HEADER_LIMIT);
+        private ByteBuffer out;
+        private boolean closeAfterWrite;
+        long lastActiveNanos = System.nanoTime();
+
+        // Current request, valid once headerEnd >= 0
+        private int headerEnd = -1;
+        private int contentLength;
+        private String signature;
+        private boolean keepAlive;
+
+        Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        void onReadable() throws IOException {
+            if (channel.read(in) < 0) {
+                closeQuietly(key);
+                return;
+            }
+            lastActiveNanos = System.nanoTime();
+            handleInput();
+        }
+
+        /**
+         * Answer 500 if no response is in progress, then close the connection
+         */
+        void abort() {
+            if (out == null) {
+                try {
+                    channel.write(ByteBuffer.wrap(response(500, false)));
+                } catch (IOException e) {
+                    // Closing anyway
+                }
+            }
+            closeQuietly(key);
+        }
+
+        void onWritable() throws IOException {
+            flush();
+            if (out == null && key.isValid()) {
+                handleInput();
+            }
+        }
+
+        /**
+         * Serve every complete request in the buffer, stopping while a response is pending
+         */
+        private void handleInput() throws IOException {
+            while (out == null && key.isValid()) {
+                if (headerEnd < 0) {
+                    int end = findHeaderEnd();
+                    if (end < 0) {
+                        if (!in.hasRemaining()) {
+                            send(431, false);
+                        }
+                        return;
+                    }
+                    headerEnd = end;
+                    int status = parseHeaders();
+                    if (status != 0) {
+                        send(status, false);
+                        return;
+                    }
+                    ensureCapacity(headerEnd + contentLength);
+                    if (out != null) {
+                        // 100 Continue pending
+                        return;
+                    }
+                }
+
+                int requestEnd = headerEnd + contentLength;
+                if (in.position() < requestEnd) {
+                    return;
+                }
+                ByteBuffer body = in.duplicate();
+                body.limit(requestEnd);
+                body.position(headerEnd);
+                WebhookProcessor.Result result = processor.process(body, signature);
+                consume(requestEnd);
+                send(result.getHttpStatus(), keepAlive);
+            }
+        }
+
+        /**
+         * @return Offset just past the blank line ending the header section, or -1
+         */
+        private int findHeaderEnd() {
+            byte[] bytes = in.array();
+            for (int i = 3; i < in.position(); i++) {
+                if (bytes[i] == '\n' && bytes[i - 1] == '\r' && bytes[i - 2] == '\n' && bytes[i - 3] == '\r') {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return 0 if the request can be served, otherwise the HTTP status to refuse it with
+         */
+        private int parseHeaders() throws IOException {
+            String[] lines = new String(in.array(), 0, headerEnd - 4, StandardCharsets.ISO_8859_1).split("\r\n");
+            String[] requestLine = lines[0].split(" ");
+            if (requestLine.length != 3) {
+                return 400;
+            }
+            keepAlive = !"HTTP/1.0".equals(requestLine[2]);
+            if (!"POST".equals(requestLine[0])) {
+                return 405;
+            }
+            String target = requestLine[1];
+            int query = target.indexOf('?');
+            if (path != null && !path.equals(query >= 0 ? target.substring(0, query) : target)) {
+                return 404;
+            }
+
+            contentLength = -1;
+            signature = null;
+            boolean expectContinue = false;
+            for (int i = 1; i < lines.length; i++) {
+                int colon = lines[i].indexOf(':');
+                if (colon <= 0) {
+                    return 400;
+                }
+                String name = lines[i].substring(0, colon).trim().toLowerCase(Locale.US);
+                String value = lines[i].substring(colon + 1).trim();
+                if ("content-length".equals(name)) {
+                    try {
+                        contentLength = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        return 400;
+                    }
+                } else if ("transfer-encoding".equals(name)) {
+                    return 411;
+                } else if ("connection".equals(name)) {
+                    if ("close".equalsIgnoreCase(value)) {
+                        keepAlive = false;
+                    } else if ("keep-alive".equalsIgnoreCase(value)) {
+                        keepAlive = true;
+                    }
+                } else if ("expect".equals(name)) {
+                    expectContinue = "100-continue".equalsIgnoreCase(value);
+                } else if (WebhookProcessor.SIGNATURE_HEADER.equalsIgnoreCase(name)) {
+                    signature = value;
+                }
+            }
+            if (contentLength < 0) {
+                return 411;
+            }
+            if (contentLength > maxBodySize) {
+                return 413;
+            }
+            if (expectContinue && in.position() == headerEnd) {
+                write(ByteBuffer.wrap(CONTINUE), false);
+            }
+            return 0;
+        }
+
+        private void ensureCapacity(int size) {
+            if (size > in.capacity()) {
+                ByteBuffer larger = ByteBuffer.allocate(size);
+                in.flip();
+                larger.put(in);
+                in = larger;
+            }
+        }
+
+        /**
+         * Drop a served request from the buffer, keeping any pipelined bytes
+         */
+        private void consume(int requestEnd) {
+            in.flip();
+            in.position(requestEnd);
+            if (in.capacity() > HEADER_LIMIT && in.remaining() <= HEADER_LIMIT) {
+                in = ByteBuffer.allocate(HEADER_LIMIT).put(in);
+            } else {
+                in.compact();
+            }
+            headerEnd = -1;
+        }
+
+        private void send(int status, boolean keepAlive) throws IOException {
+            write(ByteBuffer.wrap(response(status, keepAlive)), !keepAlive);
+        }
+
+        private void write(ByteBuffer data, boolean close) throws IOException {
+            out = data;
+            closeAfterWrite = close;
+            flush();
+        }
+
+        private void flush() throws IOException {
+            channel.write(out);
+            if (out.hasRemaining()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+                return;
+            }
+            out = null;
+            if (closeAfterWrite) {
+                closeQuietly(key);
+            } else {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        key.cancel();
+        closeQuietly(key.channel());
+    }
+
+    private static void closeQuietly(@Nullable Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Nothing left to do with it
+        }
+    }
+
+    /**
+     * Builder class for WebhookServer
+     */
+    public static final class Builder {
+        private final WebhookProcessor processor;
+        private String bindHost = null;
+        private int port = 8080;
+        private String path = null;
+        private int maxBodySize = 64 * 1024;
+        private int ioThreads = 2;
+        private SdkLogger logger = SdkLogger.NONE;
+
+        /**
+         * @param processor Processor for received webhooks; the server shuts it down on close
+         */
+        public Builder(@NonNull WebhookProcessor processor) {
+            this.processor = processor;
+        }
+
+        /**
+         * Set the listening port
+         *
+         * @param port Port (default 8080), or 0 for an ephemeral port
+         * @return Builder instance
+         */
+        public Builder setPort(int port) {
+            if (port < 0 || port > 65535) {
+                throw new IllegalArgumentException("Invalid port: " + port);
+            }
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Set the address to listen on
+         *
+         * @param bindHost Host name or address, e.g. "127.0.0.1" (default: all interfaces)
+         * @return Builder instance
+         */
+        public Builder setBindHost(@NonNull String bindHost) {
+            this.bindHost = bindHost;
+            return this;
+        }
+
+        /**
+         * Only accept webhooks POSTed to this path; other paths get 404
+         *
+         * @param path Request path, e.g. "/webhooks/payments" (default: any path)
+         * @return Builder instance
+         */
+        public Builder setPath(@NonNull String path) {
+            if (!path.startsWith("/")) {
+                throw new IllegalArgumentException("Path must start with /");
+            }
+            this.path = path;
+            return this;
+        }
+
+        /**
+         * Set the largest accepted body; larger requests get 413
+         *
+         * @param maxBodySize Maximum body size in bytes (default 64 KiB)
+         * @return Builder instance
+         */
+        public Builder setMaxBodySize(int maxBodySize) {
+            if (maxBodySize < 1) {
+                throw new IllegalArgumentException("maxBodySize must be positive");
+            }
+            this.maxBodySize = maxBodySize;
+            return this;
+        }
+
+        /**
+         * Set the number of selector threads
+         *
+         * @param ioThreads Selector threads (default 2)
+         * @return Builder instance
+         */
+        public Builder setIoThreads(int ioThreads) {
+            if (ioThreads < 1) {
+                throw new IllegalArgumentException("ioThreads must be at least 1");
+            }
+            this.ioThreads = ioThreads;
+            return this;
+        }
+
+        /**
+         * Set logger
+         *
+         * @param logger Logging sink
+         * @return Builder instance
+         */
+        public Builder setLogger(@NonNull SdkLogger logger) {
+            this.logger = logger;
+            return this;
+        }
+
+        /**
+         * Build an unstarted WebhookServer
+         *
+         * @return WebhookServer instance
+         */
+        public WebhookServer build() {
+            return new WebhookServer(this);
+        }
+    }
+}